@@ -0,0 +1,71 @@
+package com.jonghak.springbootrestapiinit.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * access token 없는 GET /api/** 요청 처리량 비교 (my-app.anonymous-read-fast-path)
+ * true  : 인증 filter 없이 보안 응답 헤더만 추가하는 filter chain (AnonymousReadSecurityConfig)
+ * false : 변경 전과 같이 OAuth2 resource server filter chain 전체를 거침 (익명 인증정보 생성, SecurityContext 저장 등)
+ * 이벤트 단건 조회는 이벤트 캐시에서 응답하므로 filter chain 비용이 차지하는 비율이 크다.
+ * security DEBUG 로그는 끄고 측정하므로 DEBUG 로그를 사용하는 경우의 차이는 이보다 크다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnonymousReadBenchmark {
+
+    @Param({"true", "false"})
+    public boolean fastPath;
+
+    private BenchmarkApplication application;
+
+    private MockMvc mockMvc;
+
+    private String eventUri;
+
+    @Setup
+    public void setUp() throws Exception {
+        application = BenchmarkApplication.start("my-app.anonymous-read-fast-path=" + fastPath);
+        mockMvc = application.mockMvc();
+
+        ObjectMapper objectMapper = application.getBean(ObjectMapper.class);
+        MvcResult result = mockMvc.perform(post("/api/events")
+                        .header(HttpHeaders.AUTHORIZATION, application.bearerToken())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BenchmarkFixtures.eventDto(0))))
+                .andReturn();
+        eventUri = result.getResponse().getHeader(HttpHeaders.LOCATION);
+        if (eventUri == null) {
+            throw new IllegalStateException("event not created: " + result.getResponse().getStatus());
+        }
+        getEvent();
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public String getEvent() throws Exception {
+        MvcResult result = mockMvc.perform(get(eventUri)).andReturn();
+        if (result.getResponse().getStatus() != HttpStatus.OK.value()) {
+            throw new IllegalStateException("unexpected status " + result.getResponse().getStatus());
+        }
+        return result.getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,125 @@
+package com.jonghak.springbootrestapiinit.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonghak.springbootrestapiinit.SpringbootRestapiInitApplication;
+import com.jonghak.springbootrestapiinit.configs.AppPropertices;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import javax.servlet.Filter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 벤치마크용 애플리케이션 실행
+ * H2 메모리 DB로 애플리케이션을 실행하고, 보안 filter를 포함한 MockMvc로 요청한다.
+ * SQL, security DEBUG 로그는 측정 결과에 영향을 주므로 끈다.
+ */
+public class BenchmarkApplication implements AutoCloseable {
+
+    private static final String[] DEFAULT_PROPERTIES = {
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.properties.hibernate.format_sql=false",
+            "--server.port=0",
+            "--logging.level.root=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+            "--logging.level.org.springframework.security=WARN"
+    };
+
+    private final ConfigurableApplicationContext context;
+
+    private final MockMvc mockMvc;
+
+    private BenchmarkApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+    }
+
+    /**
+     * @param properties 기본 설정에 추가하거나 덮어쓸 설정 (예: "my-app.event-cache.enabled=false")
+     * @return
+     */
+    public static BenchmarkApplication start(String... properties) {
+        List<String> args = new ArrayList<>(Arrays.asList(DEFAULT_PROPERTIES));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringbootRestapiInitApplication.class)
+                .run(args.toArray(new String[0]));
+        return new BenchmarkApplication(context);
+    }
+
+    public MockMvc mockMvc() {
+        return mockMvc;
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * HAL 응답(application/hal+json)을 만들 때 사용하는 ObjectMapper
+     * 기본 ObjectMapper와 달리 Spring HATEOAS의 HAL module이 등록되어 있다.
+     * @return
+     */
+    public ObjectMapper halObjectMapper() {
+        // Spring HATEOAS는 RepresentationModel 타입, HAL media type에 사용할 ObjectMapper를 Jackson converter에 등록한다
+        for (HttpMessageConverter<?> converter : getBean(RequestMappingHandlerAdapter.class).getMessageConverters()) {
+            if (converter instanceof AbstractJackson2HttpMessageConverter) {
+                ObjectMapper objectMapper = ((AbstractJackson2HttpMessageConverter) converter)
+                        .getObjectMappersForType(RepresentationModel.class)
+                        .get(MediaTypes.HAL_JSON);
+                if (objectMapper != null) {
+                    return objectMapper;
+                }
+            }
+        }
+        throw new IllegalStateException("HAL ObjectMapper not found");
+    }
+
+    /**
+     * 기본 사용자(user)의 access token 발급
+     * @return "Bearer ..." 형식의 Authorization 헤더 값
+     */
+    public String bearerToken() throws Exception {
+        AppPropertices appPropertices = getBean(AppPropertices.class);
+        String client = appPropertices.getClientId() + ":" + appPropertices.getClientSecret();
+        MvcResult result = mockMvc.perform(post("/oauth/token")
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder().encodeToString(client.getBytes(StandardCharsets.UTF_8)))
+                        .param("username", appPropertices.getUserUsername())
+                        .param("password", appPropertices.getUserPassword())
+                        .param("grant_type", "password"))
+                .andReturn();
+        String accessToken = getBean(ObjectMapper.class)
+                .readTree(result.getResponse().getContentAsString())
+                .get("access_token").asText();
+        return "Bearer " + accessToken;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
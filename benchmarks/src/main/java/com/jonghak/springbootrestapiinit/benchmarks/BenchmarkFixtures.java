@@ -0,0 +1,69 @@
+package com.jonghak.springbootrestapiinit.benchmarks;
+
+import com.jonghak.springbootrestapiinit.accounts.Account;
+import com.jonghak.springbootrestapiinit.events.Event;
+import com.jonghak.springbootrestapiinit.events.EventDto;
+import com.jonghak.springbootrestapiinit.events.EventStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+
+/**
+ * 벤치마크 공통 입력 데이터
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static EventDto eventDto(int index) {
+        return EventDto.builder()
+                .name("event" + index)
+                .description("benchmark event")
+                .beginEnrollmentDateTime(LocalDateTime.of(2022, 8, 28, 0, 0, 0))
+                .closeEnrollmentDateTime(LocalDateTime.of(2022, 8, 29, 0, 0, 0))
+                .beginEventDateTime(LocalDateTime.of(2022, 8, 30, 0, 0, 0))
+                .endEventDateTime(LocalDateTime.of(2022, 8, 31, 0, 0, 0))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("군포시")
+                .build();
+    }
+
+    /**
+     * DB에 저장된 것처럼 id, manager, version이 있는 이벤트
+     */
+    public static Event event(int index) {
+        return Event.builder()
+                .id(index + 1)
+                .name("event" + index)
+                .description("benchmark event")
+                .beginEnrollmentDateTime(LocalDateTime.of(2022, 8, 28, 0, 0, 0))
+                .closeEnrollmentDateTime(LocalDateTime.of(2022, 8, 29, 0, 0, 0))
+                .beginEventDateTime(LocalDateTime.of(2022, 8, 30, 0, 0, 0))
+                .endEventDateTime(LocalDateTime.of(2022, 8, 31, 0, 0, 0))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("군포시")
+                .offline(true)
+                .eventStatus(EventStatus.DRAFT)
+                .manager(Account.builder().id(1).email("user@email.com").build())
+                .version(0)
+                .build();
+    }
+
+    /**
+     * link 생성에 사용할 현재 요청 설정 (GET http://localhost:8080/api/events?page=1&size=20)
+     */
+    public static void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        request.setQueryString("page=1&size=20");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,98 @@
+package com.jonghak.springbootrestapiinit.benchmarks;
+
+import com.jonghak.springbootrestapiinit.accounts.Account;
+import com.jonghak.springbootrestapiinit.accounts.AccountAdapter;
+import com.jonghak.springbootrestapiinit.accounts.AccountRole;
+import com.jonghak.springbootrestapiinit.accounts.CurrentUser;
+import com.jonghak.springbootrestapiinit.accounts.CurrentUserArgumentResolver;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @CurrentUser Account 파라미터 처리 비용 비교 (EventController 요청마다 1회)
+ * spel : 변경 전 @AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : account")
+ *        요청마다 SpEL 식을 해석하고 실행
+ * compiled : CurrentUserArgumentResolver (instanceof, getter 호출)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CurrentUserResolverBenchmark {
+
+    @Param({"authenticated", "anonymous"})
+    public String principal;
+
+    private AuthenticationPrincipalArgumentResolver spelResolver;
+
+    private CurrentUserArgumentResolver compiledResolver;
+
+    private MethodParameter spelParameter;
+
+    private MethodParameter compiledParameter;
+
+    private NativeWebRequest webRequest;
+
+    @SuppressWarnings("unused")
+    public void spelHandler(@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : account") Account account) {
+    }
+
+    @SuppressWarnings("unused")
+    public void compiledHandler(@CurrentUser Account account) {
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        spelResolver = new AuthenticationPrincipalArgumentResolver();
+        compiledResolver = new CurrentUserArgumentResolver();
+        spelParameter = new MethodParameter(getClass().getMethod("spelHandler", Account.class), 0);
+        compiledParameter = new MethodParameter(getClass().getMethod("compiledHandler", Account.class), 0);
+        webRequest = new ServletWebRequest(new MockHttpServletRequest());
+
+        Authentication authentication;
+        if (principal.equals("authenticated")) {
+            Account account = Account.builder().id(1).email("user@email.com").password("pass").roles(Set.of(AccountRole.USER)).build();
+            AccountAdapter accountAdapter = new AccountAdapter(account);
+            authentication = new UsernamePasswordAuthenticationToken(accountAdapter, null, accountAdapter.getAuthorities());
+        } else {
+            authentication = new AnonymousAuthenticationToken("key", "anonymousUser",
+                    AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+        }
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        // 두 방식의 결과가 같은지 확인
+        if (spel() != compiled()) {
+            throw new IllegalStateException("resolvers return different accounts");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object spel() throws Exception {
+        return spelResolver.resolveArgument(spelParameter, null, webRequest, null);
+    }
+
+    @Benchmark
+    public Object compiled() throws Exception {
+        return compiledResolver.resolveArgument(compiledParameter, null, webRequest, null);
+    }
+}
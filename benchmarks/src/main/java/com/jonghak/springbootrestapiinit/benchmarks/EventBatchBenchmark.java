@@ -0,0 +1,94 @@
+package com.jonghak.springbootrestapiinit.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonghak.springbootrestapiinit.events.EventDto;
+import com.jonghak.springbootrestapiinit.events.EventRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 이벤트 생성 속도(rows/sec) 비교
+ * single : POST /api/events 를 ROWS번 요청
+ * batch  : POST /api/events/batch 로 ROWS건을 한번에 요청
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventBatchBenchmark {
+
+    private static final int ROWS = 100;
+
+    private BenchmarkApplication application;
+
+    private MockMvc mockMvc;
+
+    private EventRepository eventRepository;
+
+    private String bearerToken;
+
+    private String eventJson;
+
+    private String eventsJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        application = BenchmarkApplication.start();
+        mockMvc = application.mockMvc();
+        eventRepository = application.getBean(EventRepository.class);
+        bearerToken = application.bearerToken();
+
+        ObjectMapper objectMapper = application.getBean(ObjectMapper.class);
+        List<EventDto> eventDtos = IntStream.range(0, ROWS).mapToObj(BenchmarkFixtures::eventDto).collect(Collectors.toList());
+        eventJson = objectMapper.writeValueAsString(eventDtos.get(0));
+        eventsJson = objectMapper.writeValueAsString(eventDtos);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteEvents() {
+        // iteration마다 테이블 크기를 같게 유지
+        eventRepository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void single() throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            create("/api/events", eventJson);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void batch() throws Exception {
+        create("/api/events/batch", eventsJson);
+    }
+
+    private void create(String uri, String content) throws Exception {
+        int status = mockMvc.perform(post(uri)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content))
+                .andReturn().getResponse().getStatus();
+        if (status != HttpStatus.CREATED.value()) {
+            throw new IllegalStateException(uri + " : " + status);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.jonghak.springbootrestapiinit.benchmarks;
+
+import com.jonghak.springbootrestapiinit.events.Event;
+import com.jonghak.springbootrestapiinit.events.EventDto;
+import com.jonghak.springbootrestapiinit.events.EventMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EventDto -> Event 변환 비용 비교
+ * modelMapper* : ModelMapper + Event.update (변경 전 createEvent, updateEvent)
+ * eventMapper* : EventMapper
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventMapperBenchmark {
+
+    private ModelMapper modelMapper;
+
+    private EventMapper eventMapper;
+
+    private EventDto eventDto;
+
+    private Event existingEvent;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        eventMapper = new EventMapper();
+        eventDto = BenchmarkFixtures.eventDto(0);
+        existingEvent = new Event();
+    }
+
+    @Benchmark
+    public Event modelMapperCreate() {
+        Event event = modelMapper.map(eventDto, Event.class);
+        event.update();
+        return event;
+    }
+
+    @Benchmark
+    public Event eventMapperCreate() {
+        return eventMapper.toEvent(eventDto);
+    }
+
+    @Benchmark
+    public Event modelMapperUpdate() {
+        modelMapper.map(eventDto, existingEvent);
+        existingEvent.update();
+        return existingEvent;
+    }
+
+    @Benchmark
+    public Event eventMapperUpdate() {
+        eventMapper.update(eventDto, existingEvent);
+        return existingEvent;
+    }
+}
@@ -0,0 +1,69 @@
+package com.jonghak.springbootrestapiinit.benchmarks;
+
+import com.jonghak.springbootrestapiinit.events.Event;
+import com.jonghak.springbootrestapiinit.events.EventController;
+import com.jonghak.springbootrestapiinit.events.EventResource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * 이벤트 목록 페이지의 HAL model 생성 비용 (PagedResourcesAssembler.toModel)
+ * perElementLinkTo : 이벤트마다 linkTo(EventController.class).slash(id)로 self link 생성 (변경 전)
+ * cached           : EventResource (요청마다 한번 계산한 base URI에 id를 붙여서 생성)
+ * 요청마다 base URI를 다시 계산하도록 매 호출마다 새 요청을 사용한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventPageAssemblerBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private Page<Event> page;
+
+    private PagedResourcesAssembler<Event> assembler;
+
+    @Setup
+    public void setUp() {
+        List<Event> events = IntStream.range(0, pageSize)
+                .mapToObj(BenchmarkFixtures::event)
+                .collect(Collectors.toList());
+        page = new PageImpl<>(events, PageRequest.of(1, pageSize), pageSize * 10L);
+        assembler = new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public PagedModel<EntityModel<Event>> perElementLinkTo() {
+        BenchmarkFixtures.bindRequest();
+        return assembler.toModel(page, e -> EntityModel.of(e, linkTo(EventController.class).slash(e.getId()).withSelfRel()));
+    }
+
+    @Benchmark
+    public PagedModel<EntityModel<Event>> cached() {
+        BenchmarkFixtures.bindRequest();
+        return assembler.toModel(page, e -> new EventResource(e));
+    }
+}
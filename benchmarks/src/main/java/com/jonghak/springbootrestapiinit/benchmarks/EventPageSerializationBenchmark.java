@@ -0,0 +1,64 @@
+package com.jonghak.springbootrestapiinit.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonghak.springbootrestapiinit.events.Event;
+import com.jonghak.springbootrestapiinit.events.EventResource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 이벤트 목록 페이지(PagedModel) HAL 직렬화 비용 (20, 100건)
+ * 페이지 model은 준비 단계에서 만들고 직렬화만 측정한다. (model 생성 비용은 EventPageAssemblerBenchmark)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EventPageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private BenchmarkApplication application;
+
+    private ObjectMapper halObjectMapper;
+
+    private PagedModel<EntityModel<Event>> pagedModel;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start();
+        halObjectMapper = application.halObjectMapper();
+
+        List<Event> events = IntStream.range(0, pageSize)
+                .mapToObj(BenchmarkFixtures::event)
+                .collect(Collectors.toList());
+        PagedResourcesAssembler<Event> assembler = new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+        BenchmarkFixtures.bindRequest();
+        pagedModel = assembler.toModel(new PageImpl<>(events, PageRequest.of(1, pageSize), pageSize * 10L), e -> new EventResource(e));
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return halObjectMapper.writeValueAsBytes(pagedModel);
+    }
+}
@@ -0,0 +1,127 @@
+package com.jonghak.springbootrestapiinit.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonghak.springbootrestapiinit.common.ErrorsResource;
+import com.jonghak.springbootrestapiinit.events.Event;
+import com.jonghak.springbootrestapiinit.events.EventDto;
+import com.jonghak.springbootrestapiinit.events.EventMapper;
+import com.jonghak.springbootrestapiinit.events.EventResource;
+import com.jonghak.springbootrestapiinit.events.EventValidator;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.validation.Validator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이벤트 생성/조회 요청의 단계별 비용
+ * 애플리케이션이 사용하는 ObjectMapper, Validator 등을 그대로 사용해서 단계별로 따로 측정한다.
+ * - deserializeEventDto : 요청 본문(JSON) -> EventDto
+ * - validate            : bean validation + EventValidator
+ * - modelMapper / eventMapper : EventDto -> Event
+ * - serializeEvent      : EventResource(HAL) -> JSON
+ * - serializeErrors     : 400 응답(ErrorsResource, ErrorsSerializer) -> JSON
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EventRequestStagesBenchmark {
+
+    private BenchmarkApplication application;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectMapper halObjectMapper;
+
+    private SpringValidatorAdapter validator;
+
+    private EventValidator eventValidator;
+
+    private ModelMapper modelMapper;
+
+    private EventMapper eventMapper;
+
+    private String eventJson;
+
+    private EventDto eventDto;
+
+    private EventResource eventResource;
+
+    private ErrorsResource errorsResource;
+
+    @Setup
+    public void setUp() throws Exception {
+        application = BenchmarkApplication.start();
+        objectMapper = application.getBean(ObjectMapper.class);
+        halObjectMapper = application.halObjectMapper();
+        validator = new SpringValidatorAdapter(application.getBean(Validator.class));
+        eventValidator = application.getBean(EventValidator.class);
+        modelMapper = new ModelMapper();
+        eventMapper = application.getBean(EventMapper.class);
+
+        eventDto = BenchmarkFixtures.eventDto(0);
+        eventJson = objectMapper.writeValueAsString(eventDto);
+
+        // link는 준비 단계에서 만들고 직렬화만 측정
+        BenchmarkFixtures.bindRequest();
+        eventResource = new EventResource(BenchmarkFixtures.event(0));
+        if (!halObjectMapper.writeValueAsString(eventResource).contains("\"_links\"")) {
+            throw new IllegalStateException("not a HAL ObjectMapper");
+        }
+
+        EventDto wrongEventDto = BenchmarkFixtures.eventDto(0);
+        wrongEventDto.setBasePrice(10000);
+        wrongEventDto.setEndEventDateTime(wrongEventDto.getBeginEnrollmentDateTime().minusDays(1));
+        Errors errors = new BeanPropertyBindingResult(wrongEventDto, "eventDto");
+        eventValidator.validate(wrongEventDto, errors);
+        errorsResource = new ErrorsResource(errors);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public EventDto deserializeEventDto() throws Exception {
+        return objectMapper.readValue(eventJson, EventDto.class);
+    }
+
+    @Benchmark
+    public Errors validate() {
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+        validator.validate(eventDto, errors);
+        eventValidator.validate(eventDto, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Event modelMapper() {
+        Event event = modelMapper.map(eventDto, Event.class);
+        event.update();
+        return event;
+    }
+
+    @Benchmark
+    public Event eventMapper() {
+        return eventMapper.toEvent(eventDto);
+    }
+
+    @Benchmark
+    public byte[] serializeEvent() throws Exception {
+        return halObjectMapper.writeValueAsBytes(eventResource);
+    }
+
+    @Benchmark
+    public byte[] serializeErrors() throws Exception {
+        return halObjectMapper.writeValueAsBytes(errorsResource);
+    }
+}
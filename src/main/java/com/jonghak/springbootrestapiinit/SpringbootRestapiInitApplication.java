@@ -1,15 +1,29 @@
 package com.jonghak.springbootrestapiinit;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Bean;
 
 @SpringBootApplication
 public class SpringbootRestapiInitApplication {
 
+    // 서버 시작 시 기록할 최대 단계 수 (bean 생성 단계 포함)
+    public static final int STARTUP_STEP_CAPACITY = 10_000;
+
     public static void main(String[] args) {
-        SpringApplication.run(SpringbootRestapiInitApplication.class, args);
+        application().run(args);
+    }
+
+    /**
+     * 서버 시작 단계별(bean 생성, EntityManagerFactory 생성, schema DDL, 기본 계정 추가 등) 시간을 기록
+     * 기록한 단계는 /actuator/startup 으로 확인
+     * @return
+     */
+    public static SpringApplication application() {
+        SpringApplication application = new SpringApplication(SpringbootRestapiInitApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        return application;
     }
 
 }
@@ -3,13 +3,17 @@ package com.jonghak.springbootrestapiinit.accounts;
 import lombok.*;
 
 import javax.persistence.*;
+import java.io.Serializable;
 import java.util.Set;
 
 @Entity
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Builder
 @NoArgsConstructor @AllArgsConstructor
-public class Account {
+public class Account implements Serializable {
+
+    // token 저장소(type=jdbc)에 인증정보와 함께 직렬화해서 저장 (비밀번호는 AccountAdapter.eraseCredentials()로 지운 후 저장)
+    private static final long serialVersionUID = 1L;
 
     @Id @GeneratedValue
     private Integer id;
@@ -19,7 +23,8 @@ public class Account {
 
     private String password;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @Enumerated(EnumType.STRING)
+    // 권한별 bit를 더한 값으로 저장 (ADMIN = 1, USER = 2). 변경 시에는 새 Set을 지정해야 함
+    @Convert(converter = AccountRolesConverter.class)
+    @Column(nullable = false)
     private Set<AccountRole> roles;
 }
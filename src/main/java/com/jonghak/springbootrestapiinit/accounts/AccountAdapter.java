@@ -5,30 +5,63 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * spring security의 User객체를 Account객체로 변환하는 Class
  */
 public class AccountAdapter extends User {
 
-    private final Account account;
+    // 권한 조합(AccountRole mask)별 GrantedAuthority 목록. 로그인마다 만들지 않고 공유
+    private static final Set<GrantedAuthority>[] AUTHORITIES = authoritiesByMask();
+
+    private Account account;
+
+    private final Set<GrantedAuthority> authorities;
 
     public AccountAdapter(Account account) {
-        super(account.getEmail(), account.getPassword(), authorities(account.getRoles()));
+        super(account.getEmail(), account.getPassword(), Collections.emptySet());
         this.account = account;
+        this.authorities = AUTHORITIES[AccountRole.toMask(account.getRoles())];
     }
 
-    private static Collection<? extends GrantedAuthority> authorities(Set<AccountRole> roles) {
-        return roles.stream()
-                    .map(r -> new SimpleGrantedAuthority("ROLE_" + r.name()))
-                    .collect(Collectors.toSet());
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return authorities;
     }
 
     public Account getAccount() {
         return account;
     }
 
+    /**
+     * 인증 후(token 저장소에 저장 전) 비밀번호 hash 삭제
+     * Account는 AccountService에서 캐시해서 다른 로그인에서도 사용하므로 비밀번호를 뺀 복사본으로 교체
+     */
+    @Override
+    public void eraseCredentials() {
+        super.eraseCredentials();
+        this.account = Account.builder()
+                .id(account.getId())
+                .email(account.getEmail())
+                .roles(account.getRoles())
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<GrantedAuthority>[] authoritiesByMask() {
+        int combinations = 1 << AccountRole.values().length;
+        Set<GrantedAuthority>[] authorities = new Set[combinations];
+        for (int mask = 0; mask < combinations; mask++) {
+            Set<GrantedAuthority> roles = new LinkedHashSet<>();
+            for (AccountRole role : AccountRole.fromMask(mask)) {
+                roles.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
+            }
+            authorities[mask] = Collections.unmodifiableSet(roles);
+        }
+        return authorities;
+    }
 
 }
@@ -1,9 +1,21 @@
 package com.jonghak.springbootrestapiinit.accounts;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 public interface AccountRepository extends JpaRepository<Account, Integer> {
     Optional<Account> findByEmail(String username);
+
+    /**
+     * 이미 저장된 email 조회 (계정 여러 개의 존재 여부를 한번의 조회로 확인)
+     * @param emails
+     * @return
+     */
+    @Query("select a.email from Account a where a.email in :emails")
+    Set<String> findEmailsByEmailIn(@Param("emails") Collection<String> emails);
 }
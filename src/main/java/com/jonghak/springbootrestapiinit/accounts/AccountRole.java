@@ -1,9 +1,42 @@
 package com.jonghak.springbootrestapiinit.accounts;
 
 import lombok.Getter;
-import lombok.Setter;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 계정 권한
+ * DB에는 권한별 bit(mask)를 더한 값(smallint)으로 저장 (AccountRolesConverter)
+ * mask 값은 저장된 데이터와 맞아야 하므로 변경하지 않고, 권한 추가 시 다음 bit를 사용
+ */
 @Getter
 public enum AccountRole {
-    ADMIN, USER
+    ADMIN(1), USER(1 << 1);
+
+    private final int mask;
+
+    AccountRole(int mask) {
+        this.mask = mask;
+    }
+
+    public static int toMask(Set<AccountRole> roles) {
+        int mask = 0;
+        if (roles != null) {
+            for (AccountRole role : roles) {
+                mask |= role.mask;
+            }
+        }
+        return mask;
+    }
+
+    public static Set<AccountRole> fromMask(int mask) {
+        Set<AccountRole> roles = EnumSet.noneOf(AccountRole.class);
+        for (AccountRole role : values()) {
+            if ((mask & role.mask) != 0) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
 }
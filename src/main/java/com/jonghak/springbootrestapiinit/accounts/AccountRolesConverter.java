@@ -0,0 +1,23 @@
+package com.jonghak.springbootrestapiinit.accounts;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.util.Set;
+
+/**
+ * Account.roles <-> smallint bitmask (ADMIN = 1, USER = 2)
+ * 별도 테이블(@ElementCollection) 없이 account 테이블의 컬럼 하나로 저장해서 계정 조회 시 추가 조회(join)가 없도록 함
+ */
+@Converter
+public class AccountRolesConverter implements AttributeConverter<Set<AccountRole>, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Set<AccountRole> roles) {
+        return (short) AccountRole.toMask(roles);
+    }
+
+    @Override
+    public Set<AccountRole> convertToEntityAttribute(Short mask) {
+        return AccountRole.fromMask(mask == null ? 0 : mask);
+    }
+}
@@ -1,21 +1,38 @@
 package com.jonghak.springbootrestapiinit.accounts;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jonghak.springbootrestapiinit.common.SingleFlight;
+import com.jonghak.springbootrestapiinit.configs.AccountCacheProperties;
+import com.jonghak.springbootrestapiinit.configs.AppPropertices;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 @Service
-public class AccountService implements UserDetailsService {
+public class AccountService implements UserDetailsService, UserDetailsPasswordService {
+
+    public static final String CACHE_NAME = "accounts";
 
     @Autowired
     AccountRepository accountRepository;
@@ -23,26 +40,183 @@ public class AccountService implements UserDetailsService {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    @Autowired
+    AppPropertices appPropertices;
+
+    @Autowired
+    AccountCacheProperties accountCacheProperties;
+
+    @Autowired
+    ObjectProvider<MeterRegistry> meterRegistry;
+
+    // 같은 계정으로 동시에 로그인해도 DB 조회는 한번만 실행
+    // 계정이 저장(캐시 삭제)된 후의 조회는 저장 전에 시작한 조회 결과를 받지 않도록 계정별 세대로 나눔
+    private SingleFlight<LoadKey, Optional<Account>> accountLoader;
+
+    // 조회 중인 email -> 조회 수, 세대 (조회 중에 캐시 삭제되면 세대 증가, 조회가 모두 끝나면 삭제)
+    private final ConcurrentMap<String, LoadState> loading = new ConcurrentHashMap<>();
+
+    // email -> 계정 (password grant, refresh grant 마다 계정, 권한을 다시 조회하지 않도록)
+    private Cache<String, Account> accountCache;
+
+    @PostConstruct
+    public void init() {
+        this.accountLoader = new SingleFlight<>(appPropertices.getAccountLoadTimeout());
+        this.accountCache = Caffeine.newBuilder()
+                .maximumSize(accountCacheProperties.getMaximumSize())
+                .expireAfterWrite(accountCacheProperties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, this.accountCache, CACHE_NAME));
+    }
+
+    /**
+     * 계정 저장 (생성, 비밀번호/권한 변경)
+     * 저장한 계정은 캐시에서 삭제해서 다음 로그인 시 변경된 정보로 조회
+     * @param account
+     * @return
+     */
     public Account saveAccount(Account account) {
         account.setPassword(this.passwordEncoder.encode(account.getPassword()));
-        return this.accountRepository.save(account);
+        Account savedAccount = this.accountRepository.save(account);
+        invalidate(savedAccount.getEmail());
+        return savedAccount;
+    }
+
+    /**
+     * 없는 계정만 저장 (서버 시작 시 기본 계정 추가)
+     * 이미 있는 계정은 한번의 조회로 확인하고 비밀번호 hash도 계산하지 않음
+     * 다른 서버에서 먼저 저장한 계정(unique key 중복)은 건너뜀
+     * @param accounts
+     * @return 새로 저장한 계정
+     */
+    public List<Account> saveAccountsIfAbsent(List<Account> accounts) {
+        Set<String> existingEmails = this.accountRepository.findEmailsByEmailIn(
+                accounts.stream().map(Account::getEmail).collect(Collectors.toList()));
+        List<Account> savedAccounts = new ArrayList<>();
+        for (Account account : accounts) {
+            if (existingEmails.contains(account.getEmail())) {
+                continue;
+            }
+            try {
+                savedAccounts.add(saveAccount(account));
+            } catch (DataIntegrityViolationException e) {
+                // 조회 후 다른 서버에서 같은 계정을 저장한 경우
+            }
+        }
+        return savedAccounts;
+    }
+
+    /**
+     * 캐시한 계정 전체 삭제
+     * AccountRepository로 계정을 직접 변경/삭제한 경우 사용
+     */
+    public void evictAll() {
+        this.loading.replaceAll((email, current) -> {
+            current.generation++;
+            return current;
+        });
+        this.accountCache.invalidateAll();
+    }
+
+    /**
+     * 캐시 삭제
+     * 조회 중인 계정은 세대를 먼저 증가시켜서 삭제 전에 시작한 조회 결과(이전 비밀번호, 권한)가 다시 캐시되지 않도록 함
+     */
+    private void invalidate(String email) {
+        this.loading.computeIfPresent(email, (key, current) -> {
+            current.generation++;
+            return current;
+        });
+        this.accountCache.invalidate(email);
+    }
+
+    /**
+     * 로그인 성공 시 저장된 hash 방식({id}) 또는 bcrypt cost가 현재 설정과 다르면 DaoAuthenticationProvider가 호출
+     * 비밀번호 초기화 없이 hash 설정을 변경할 수 있도록 새로 계산한 hash로 변경
+     * @param user 로그인한 계정
+     * @param newPassword 새 설정으로 hash한 비밀번호
+     * @return
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Account account = accountRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException(user.getUsername()));
+        account.setPassword(newPassword);
+        Account savedAccount = this.accountRepository.save(account);
+        invalidate(savedAccount.getEmail());
+        return new AccountAdapter(savedAccount);
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Account account = accountRepository.findByEmail(username).orElseThrow(() -> new UsernameNotFoundException(username));
+        Account account = findAccount(username)
+                .orElseThrow(() -> new UsernameNotFoundException(username));
 
         /*
          * AccountAdapter 생성 이전에는 spring security의 User를 return
          * return new User(account.getEmail(), account.getPassword(), authorities(account.getRoles()));
          */
+        // 인증 후 eraseCredentials()로 User의 비밀번호가 지워지므로 AccountAdapter는 캐시하지 않고 매번 생성
         return new AccountAdapter(account);
     }
 
-    private Collection<? extends GrantedAuthority> authorities(Set<AccountRole> roles) {
-        return roles.stream()
-                .map(r -> new SimpleGrantedAuthority("ROLE_"+r.name()))
-                .collect(Collectors.toSet());
+    private Optional<Account> findAccount(String username) {
+        boolean cacheEnabled = accountCacheProperties.isEnabled();
+        if (cacheEnabled) {
+            Account account = this.accountCache.getIfPresent(username);
+            if (account != null) {
+                return Optional.of(account);
+            }
+        }
+
+        LoadState state = this.loading.compute(username, (key, current) -> {
+            LoadState loadState = current == null ? new LoadState() : current;
+            loadState.loads++;
+            return loadState;
+        });
+        try {
+            // 존재하지 않는 계정은 캐시하지 않음 (가입 직후 바로 로그인할 수 있도록)
+            return accountLoader.load(new LoadKey(username, state.generation), key -> {
+                Optional<Account> optionalAccount = accountRepository.findByEmail(key.getUsername());
+                if (cacheEnabled) {
+                    optionalAccount.ifPresent(a -> putIfNotInvalidated(key.getUsername(), a, state, key.getGeneration()));
+                }
+                return optionalAccount;
+            });
+        } finally {
+            this.loading.computeIfPresent(username, (key, current) -> --current.loads == 0 ? null : current);
+        }
+    }
+
+    /**
+     * 조회를 시작한 후 캐시 삭제(계정 저장)되지 않은 경우에만 저장
+     * 캐시 삭제는 세대를 먼저 증가시킨 후 삭제하므로, 확인 후 저장 사이에 삭제되어도 저장한 계정은 삭제된다.
+     */
+    private void putIfNotInvalidated(String username, Account account, LoadState state, long loadGeneration) {
+        this.accountCache.asMap().compute(username,
+                (key, cached) -> state.generation == loadGeneration ? account : cached);
+    }
+
+    private static class LoadState {
+
+        // loading map의 compute 안에서만 변경
+        private int loads;
+
+        private volatile long generation;
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    private static class LoadKey {
+
+        private final String username;
+
+        private final long generation;
 
+        LoadKey(String username, long generation) {
+            this.username = username;
+            this.generation = generation;
+        }
     }
 }
@@ -0,0 +1,145 @@
+package com.jonghak.springbootrestapiinit.accounts;
+
+import com.jonghak.springbootrestapiinit.configs.PasswordHashingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 크기가 제한된 전용 thread pool에서 hash를 계산하는 PasswordEncoder
+ * bcrypt 계산은 CPU를 오래 사용하므로 로그인 요청이 몰려도 동시에 계산하는 수를 pool 크기로 제한하고,
+ * 대기열까지 가득 차면 기다리지 않고 PasswordHashingUnavailableException(503)을 발생시킨다.
+ * pool 상태는 actuator metrics(executor.*, name=password-hashing)로 확인할 수 있다.
+ * bcrypt 계산은 interrupt를 확인하지 않으므로 timeout(503) 후에도 계산이 끝날 때까지 pool thread를 사용하고,
+ * 대기열에 있던 작업만 취소된다. (timeout이 계속 발생하면 pool이 비워지지 않으므로 대기열 크기는 pool 크기 x timeout 동안 처리할 수 있는 수 이하로 설정)
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    public static final String EXECUTOR_NAME = "password-hashing";
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Duration timeout;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  PasswordHashingProperties passwordHashingProperties,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this.delegate = delegate;
+        this.timeout = passwordHashingProperties.getTimeout();
+        int queueCapacity = passwordHashingProperties.getQueueCapacity();
+        this.executor = new ThreadPoolExecutor(
+                passwordHashingProperties.getPoolSize(),
+                passwordHashingProperties.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+                new CustomizableThreadFactory(EXECUTOR_NAME + "-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.ifAvailable(registry ->
+                new ExecutorServiceMetrics(this.executor, EXECUTOR_NAME, Tags.empty()).bindTo(registry));
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> this.delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> this.delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * hash 방식({id}) 또는 bcrypt cost가 현재 설정과 다르면 true
+     * 로그인 성공 시 AccountService.updatePassword로 다시 hash해서 저장한다.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * 대기열에서 기다리는 hash 계산 수
+     */
+    public int queuedCount() {
+        return this.executor.getQueue().size();
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = this.executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingUnavailableException("Too many password hashing requests");
+        }
+
+        try {
+            return future.get(this.timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 대기열에 있으면 제거되지만, 이미 계산 중인 hash는 interrupt와 관계없이 끝까지 계산하고 결과를 버림
+            future.cancel(true);
+            throw new PasswordHashingUnavailableException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Password hashing interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 저장된 hash의 cost가 설정한 cost와 다르면(낮거나 높으면) 다시 hash
+     * BCryptPasswordEncoder는 cost가 낮은 경우에만 다시 hash하므로 cost를 낮추는 경우도 반영되도록 재정의
+     */
+    public static class StrengthAwareBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2(a|y|b)?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+        private final int strength;
+
+        public StrengthAwareBCryptPasswordEncoder(int strength) {
+            super(strength);
+            this.strength = strength;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null) {
+                return false;
+            }
+            Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+            return matcher.matches() && Integer.parseInt(matcher.group(2)) != this.strength;
+        }
+    }
+}
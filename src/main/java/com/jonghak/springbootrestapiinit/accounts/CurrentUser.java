@@ -1,14 +1,16 @@
 package com.jonghak.springbootrestapiinit.accounts;
 
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * 현재 로그인한 사용자의 Account (로그인하지 않은 경우 null)
+ * CurrentUserArgumentResolver에서 처리
+ * (이전 : @AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : account") - 요청마다 SpEL 해석, 실행)
+ */
 @Target(ElementType.PARAMETER)
 @Retention(RetentionPolicy.RUNTIME) // 언제까지 이 정보를 유지할 것이냐? RUNTIME : 실행
-@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : account") // SpEL(spring expression language)
 public @interface CurrentUser {
 }
@@ -0,0 +1,25 @@
+package com.jonghak.springbootrestapiinit.accounts;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.common.exceptions.OAuth2Exception;
+
+/**
+ * 비밀번호 hash 계산 thread pool이 가득 찬 경우 발생
+ * /oauth/token 에서는 OAuth2 error 형식({"error": "temporarily_unavailable"})의 503으로 응답한다.
+ */
+public class PasswordHashingUnavailableException extends OAuth2Exception {
+
+    public PasswordHashingUnavailableException(String msg) {
+        super(msg);
+    }
+
+    @Override
+    public String getOAuth2ErrorCode() {
+        return "temporarily_unavailable";
+    }
+
+    @Override
+    public int getHttpErrorCode() {
+        return HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+}
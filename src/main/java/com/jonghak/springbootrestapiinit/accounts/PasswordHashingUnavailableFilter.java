@@ -0,0 +1,57 @@
+package com.jonghak.springbootrestapiinit.accounts;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 비밀번호 hash thread pool이 가득 차서 발생한 예외를 503으로 응답
+ * client 인증(BasicAuthenticationFilter)처럼 Controller 밖에서 발생한 예외는 TokenEndpoint가 처리하지 못하므로
+ * Spring Security Filter 앞에서 처리한다.
+ */
+public class PasswordHashingUnavailableFilter extends OncePerRequestFilter {
+
+    // 잠시 후 다시 요청 (초)
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final ObjectMapper objectMapper;
+
+    public PasswordHashingUnavailableFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServletException | RuntimeException e) {
+            PasswordHashingUnavailableException unavailable = find(e);
+            if (unavailable == null || response.isCommitted()) {
+                throw e;
+            }
+            response.resetBuffer();
+            response.setStatus(unavailable.getHttpErrorCode());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            // OAuth2Exception은 {"error": ..., "error_description": ...} 형식으로 직렬화
+            objectMapper.writeValue(response.getOutputStream(), unavailable);
+        }
+    }
+
+    private static PasswordHashingUnavailableException find(Throwable throwable) {
+        while (throwable != null) {
+            if (throwable instanceof PasswordHashingUnavailableException) {
+                return (PasswordHashingUnavailableException) throwable;
+            }
+            throwable = throwable.getCause();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,139 @@
+package com.jonghak.springbootrestapiinit.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jonghak.springbootrestapiinit.configs.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.common.exceptions.OAuth2Exception;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 수 제한 Filter (Spring Security Filter 앞에서 실행)
+ * 설정한 경로의 요청을 사용자별 token bucket으로 제한하고, 초과하면 429와 Retry-After(초)로 응답한다.
+ * 사용자 구분 순서
+ * - bearer token이 있으면 token의 계정 (token이 잘못된 경우 IP)
+ * - 그 외(basic 인증 /oauth/token 포함) 요청 IP
+ *   (client 인증 전이므로 client id는 사용하지 않음. client id로 구분하면 잘못된 secret으로도 모든 사용자의 로그인을 막을 수 있음)
+ *   (username 파라미터도 사용하지 않음. 요청마다 username을 바꾸면 새 bucket을 받아서 비밀번호 hash 계산을 제한할 수 없음)
+ * bucket은 Caffeine(ConcurrentHashMap 기반)에 보관하고 일정 시간 사용하지 않으면 삭제한다. (actuator metrics cache=rate-limit-buckets)
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String CACHE_NAME = "rate-limit-buckets";
+
+    private static final String BEARER = "bearer ";
+
+    private final RateLimitProperties rateLimitProperties;
+
+    private final TokenStore tokenStore;
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public RateLimitFilter(RateLimitProperties rateLimitProperties,
+                           TokenStore tokenStore,
+                           ObjectMapper objectMapper,
+                           ObjectProvider<MeterRegistry> meterRegistry) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.tokenStore = tokenStore;
+        this.objectMapper = objectMapper;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.getMaximumBuckets())
+                .expireAfterAccess(rateLimitProperties.getBucketIdleTimeout())
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, this.buckets, CACHE_NAME));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !this.rateLimitProperties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RateLimitProperties.Route route = findRoute(request);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        String key = route.getName() + ":" + clientKey(request);
+        TokenBucket bucket = this.buckets.get(key, k -> new TokenBucket(route.getCapacity(), route.getRefillPeriod(), now));
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        logger.debug("Rate limit exceeded : " + key);
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put(OAuth2Exception.ERROR, "too_many_requests");
+        body.put(OAuth2Exception.DESCRIPTION, "Rate limit exceeded. Retry after " + retryAfterSeconds + " seconds");
+        this.objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private RateLimitProperties.Route findRoute(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        String path = this.urlPathHelper.getPathWithinApplication(request);
+        for (RateLimitProperties.Route route : this.rateLimitProperties.getRoutes()) {
+            if ((route.getMethods().isEmpty() || route.getMethods().contains(method))
+                    && this.pathMatcher.match(route.getPattern(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.toLowerCase().startsWith(BEARER)) {
+            String account = account(authorization.substring(BEARER.length()).trim());
+            if (account != null) {
+                return "account:" + account;
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private String account(String accessToken) {
+        try {
+            OAuth2Authentication authentication = this.tokenStore.readAuthentication(accessToken);
+            return authentication == null ? null : authentication.getName();
+        } catch (RuntimeException e) {
+            // 잘못된 token은 Spring Security에서 401로 응답
+            return null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.jonghak.springbootrestapiinit.common;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * 같은 key에 대한 동시 조회를 하나로 합치는 loader (single-flight)
+ * 먼저 요청한 thread만 loader를 실행하고, 그 사이에 들어온 같은 key의 요청은 그 결과(또는 예외)를 함께 받는다.
+ * 결과를 보관하지 않으므로 캐시 miss 등 DB 조회 앞에서 사용한다.
+ * @param <K> 조회 key
+ * @param <V> 조회 결과
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Duration timeout;
+
+    /**
+     * @param timeout 다른 thread의 조회 결과를 기다리는 최대 시간
+     */
+    public SingleFlight(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * 조회
+     * @param key
+     * @param loader 실제 조회 (같은 key로 동시에 요청해도 한번만 실행된다)
+     * @return
+     * @throws QueryTimeoutException 다른 thread의 조회 결과를 timeout 동안 받지 못한 경우
+     */
+    public V load(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = this.inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return await(key, existing);
+        }
+
+        try {
+            V value = loader.apply(key);
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.inFlight.remove(key, future);
+        }
+    }
+
+    private V await(K key, CompletableFuture<V> future) {
+        try {
+            return future.get(this.timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Timed out waiting for in-flight load of " + key, e);
+        } catch (ExecutionException e) {
+            // 조회한 thread에서 발생한 예외를 그대로 전달
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted waiting for in-flight load of " + key, e);
+        }
+    }
+}
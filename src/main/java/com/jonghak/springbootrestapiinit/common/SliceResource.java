@@ -0,0 +1,71 @@
+package com.jonghak.springbootrestapiinit.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * count 쿼리 없이 조회한 Slice의 HAL 표현
+ * PagedModel과 달리 totalElements, totalPages를 제공하지 않고 다음 페이지 존재 여부만 제공한다.
+ */
+public class SliceResource<T> extends CollectionModel<T> {
+
+    private final SliceMetadata metadata;
+
+    public SliceResource(List<T> content, Slice<?> slice, Long totalElementsEstimate) {
+        super(content);
+        this.metadata = new SliceMetadata(slice, totalElementsEstimate);
+
+        // 현재 요청의 size, sort 등 파라미터는 그대로 두고 page만 변경
+        add(pageLink(slice.getNumber()).withSelfRel());
+        add(pageLink(0).withRel(IanaLinkRelations.FIRST));
+        if (slice.hasPrevious()) {
+            add(pageLink(slice.getNumber() - 1).withRel(IanaLinkRelations.PREV));
+        }
+        if (slice.hasNext()) {
+            add(pageLink(slice.getNumber() + 1).withRel(IanaLinkRelations.NEXT));
+        }
+    }
+
+    private static Link pageLink(int page) {
+        return Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("page", page)
+                .toUriString());
+    }
+
+    @JsonProperty("slice")
+    public SliceMetadata getMetadata() {
+        return metadata;
+    }
+
+    @Getter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class SliceMetadata {
+
+        private final int size;
+
+        private final int number;
+
+        private final int numberOfElements;
+
+        private final boolean hasNext;
+
+        // 요청한 경우에만 제공하는 대략적인 전체 건수
+        private final Long totalElementsEstimate;
+
+        SliceMetadata(Slice<?> slice, Long totalElementsEstimate) {
+            this.size = slice.getSize();
+            this.number = slice.getNumber();
+            this.numberOfElements = slice.getNumberOfElements();
+            this.hasNext = slice.hasNext();
+            this.totalElementsEstimate = totalElementsEstimate;
+        }
+    }
+}
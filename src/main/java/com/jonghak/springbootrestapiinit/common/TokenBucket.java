@@ -0,0 +1,60 @@
+package com.jonghak.springbootrestapiinit.common;
+
+import java.time.Duration;
+
+/**
+ * token bucket
+ * 최대 capacity개의 token을 보관하고, refillPeriod / capacity 마다 token 하나를 다시 채운다.
+ * 요청 하나당 token 하나를 사용하고, token이 없으면 다음 token이 채워질 때까지 기다려야 하는 시간을 알려준다.
+ * bucket마다 lock을 사용하므로 서로 다른 사용자의 요청은 경합하지 않는다.
+ */
+public class TokenBucket {
+
+    private final long capacity;
+
+    private final long nanosPerToken;
+
+    private long availableTokens;
+
+    private long lastRefillNanos;
+
+    public TokenBucket(long capacity, Duration refillPeriod, long nowNanos) {
+        this.capacity = capacity;
+        this.nanosPerToken = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.availableTokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * token 하나 사용
+     * @param nowNanos 현재 시간 (System.nanoTime())
+     * @return 사용한 경우 0, token이 없는 경우 다음 token까지 기다려야 하는 시간(ns)
+     */
+    public synchronized long tryConsume(long nowNanos) {
+        refill(nowNanos);
+        if (this.availableTokens > 0) {
+            this.availableTokens--;
+            return 0;
+        }
+        return this.nanosPerToken - (nowNanos - this.lastRefillNanos);
+    }
+
+    public synchronized long availableTokens(long nowNanos) {
+        refill(nowNanos);
+        return this.availableTokens;
+    }
+
+    private void refill(long nowNanos) {
+        long tokens = (nowNanos - this.lastRefillNanos) / this.nanosPerToken;
+        if (tokens <= 0) {
+            return;
+        }
+        if (this.availableTokens + tokens >= this.capacity) {
+            this.availableTokens = this.capacity;
+            this.lastRefillNanos = nowNanos;
+        } else {
+            this.availableTokens += tokens;
+            this.lastRefillNanos += tokens * this.nanosPerToken;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.jonghak.springbootrestapiinit.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 로그인(UserDetails) 계정 조회 캐시 설정
+ */
+@Component
+@ConfigurationProperties(prefix = "my-app.account-cache")
+@Getter @Setter
+public class AccountCacheProperties {
+
+    // false인 경우 캐시를 사용하지 않고 로그인할 때마다 DB에서 조회
+    private boolean enabled = true;
+
+    // 캐시에 보관할 최대 계정 수
+    private long maximumSize = 10_000;
+
+    // 캐시에 저장된 후 만료되는 시간 (다른 서버에서 변경한 비밀번호, 권한은 만료 후 반영)
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+
+}
@@ -0,0 +1,55 @@
+package com.jonghak.springbootrestapiinit.configs;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * access token 없이 요청한 GET /api/** 전용 filter chain (my-app.anonymous-read-fast-path)
+ * 누구나 조회할 수 있으므로 인증 filter(OAuth2 인증, 익명 인증정보 생성, SecurityContext 저장, 권한 확인 등) 없이
+ * 보안 응답 헤더(X-Content-Type-Options, Cache-Control, HSTS, X-Frame-Options 등)만 추가한다.
+ * (web.ignoring()은 보안 응답 헤더도 추가하지 않으므로 사용하지 않음)
+ * 인증정보가 없으므로 @CurrentUser는 null (익명 사용자와 같음)
+ * ResourceServerConfig(@Order(3))보다 먼저 비교
+ */
+@Configuration
+@Order(2)
+@ConditionalOnProperty(prefix = "my-app", name = "anonymous-read-fast-path", havingValue = "true", matchIfMissing = true)
+public class AnonymousReadSecurityConfig extends WebSecurityConfigurerAdapter {
+
+    public AnonymousReadSecurityConfig() {
+        // 기본 filter(session, request cache, 익명 인증 등)를 추가하지 않음
+        super(true);
+    }
+
+    /**
+     * 응답 헤더만 추가 (권한 확인 filter가 없으므로 모두 허용, session을 만들지 않음)
+     * @param http
+     * @throws Exception
+     */
+    @Override
+    protected void configure(HttpSecurity http) throws Exception {
+        http
+            .requestMatcher(anonymousReadRequestMatcher())
+            .headers();
+    }
+
+    /**
+     * Authorization 헤더, access_token 파라미터가 없는 GET /api/** 요청
+     * token이 있으면 인증정보(@CurrentUser)가 필요하므로 ResourceServer filter chain을 거침
+     * @return
+     */
+    static RequestMatcher anonymousReadRequestMatcher() {
+        RequestMatcher apiRead = new AntPathRequestMatcher("/api/**", HttpMethod.GET.name());
+        return request -> apiRead.matches(request)
+                && request.getHeader(HttpHeaders.AUTHORIZATION) == null
+                && request.getParameter(OAuth2AccessToken.ACCESS_TOKEN) == null;
+    }
+}
@@ -1,34 +1,119 @@
 package com.jonghak.springbootrestapiinit.configs;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jonghak.springbootrestapiinit.accounts.Account;
 import com.jonghak.springbootrestapiinit.accounts.AccountRepository;
 import com.jonghak.springbootrestapiinit.accounts.AccountRole;
 import com.jonghak.springbootrestapiinit.accounts.AccountService;
-import org.modelmapper.ModelMapper;
+import com.jonghak.springbootrestapiinit.accounts.BoundedPasswordEncoder;
+import com.jonghak.springbootrestapiinit.accounts.PasswordHashingUnavailableFilter;
+import com.jonghak.springbootrestapiinit.common.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.provider.token.TokenStore;
 
-import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 @Configuration
 public class AppConfig {
 
+    // 기본 계정 추가 단계 이름 (/actuator/startup)
+    public static final String SEED_ACCOUNTS_STEP = "my-app.accounts.seed";
+
+    private static final Log logger = LogFactory.getLog(AppConfig.class);
+
+    /**
+     * 비밀번호 hash는 전용 thread pool에서 계산 (pool, 대기열이 가득 차면 503)
+     * PasswordEncoderFactories.createDelegatingPasswordEncoder()와 같은 {id} 형식을 지원하고
+     * bcrypt cost만 설정값(my-app.password-hashing.bcrypt-strength)을 사용
+     * @param passwordHashingProperties
+     * @param meterRegistry
+     * @return
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties passwordHashingProperties,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        String encodingId = "bcrypt";
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(encodingId,
+                Map.of(encodingId, new BoundedPasswordEncoder.StrengthAwareBCryptPasswordEncoder(passwordHashingProperties.getBcryptStrength())));
+        // {bcrypt} 외의 {id}(pbkdf2, scrypt 등)는 기본 DelegatingPasswordEncoder로 비교
+        passwordEncoder.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+
+        return new BoundedPasswordEncoder(passwordEncoder, passwordHashingProperties, meterRegistry);
+    }
+
+    /**
+     * /oauth/token, 이벤트 생성/수정 요청 수 제한 (초과하면 429)
+     * Spring Security Filter, PasswordHashingUnavailableFilter보다 먼저 실행해서 제한된 요청은 인증(bcrypt)하지 않음
+     * @param rateLimitProperties
+     * @param tokenStore
+     * @param objectMapper
+     * @param meterRegistry
+     * @return
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties rateLimitProperties,
+                                                                   TokenStore tokenStore,
+                                                                   ObjectMapper objectMapper,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(rateLimitProperties, tokenStore, objectMapper, meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+
+    /**
+     * Controller 밖(client 인증 등)에서 발생한 비밀번호 hash pool 초과 예외를 503으로 응답
+     * Spring Security Filter(SecurityProperties.DEFAULT_FILTER_ORDER)보다 먼저 실행
+     * @param objectMapper
+     * @return
+     */
     @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
+    public FilterRegistrationBean<PasswordHashingUnavailableFilter> passwordHashingUnavailableFilter(ObjectMapper objectMapper) {
+        FilterRegistrationBean<PasswordHashingUnavailableFilter> registration =
+                new FilterRegistrationBean<>(new PasswordHashingUnavailableFilter(objectMapper));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
     }
 
+    /**
+     * Hibernate schema 작업(ddl-auto) 시간을 서버 시작 단계로 기록
+     * @param applicationStartup
+     * @return
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public HibernatePropertiesCustomizer startupStepSchemaManagementTool(ApplicationStartup applicationStartup) {
+        return properties -> properties.put(AvailableSettings.SCHEMA_MANAGEMENT_TOOL,
+                new StartupStepSchemaManagementTool(applicationStartup));
     }
 
+    /**
+     * 기본 계정(admin, user) 추가
+     * 이미 있는 계정은 추가하지 않으므로 DB를 유지해도 재시작할 수 있음 (비밀번호 hash는 추가하는 계정만 계산)
+     * my-app.seed-accounts-async=true 이면 applicationTaskExecutor에서 실행해서 서버 시작(ready)을 기다리게 하지 않음
+     * @return
+     */
     @Bean
     public ApplicationRunner applicationRunner() {
         return new ApplicationRunner() {
@@ -39,26 +124,47 @@ public class AppConfig {
             @Autowired
             AppPropertices appPropertices;
 
+            @Autowired
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+            Executor executor;
+
+            @Autowired
+            ApplicationStartup applicationStartup;
+
             @Override
             public void run(ApplicationArguments args) throws Exception {
-                // java 11 미만 version일 경우 Set.of를 사용하지 못함
-                Set<AccountRole> accountSet = new HashSet<>();
-                accountSet.add(AccountRole.ADMIN);
-                accountSet.add(AccountRole.USER);
+                if (appPropertices.isSeedAccountsAsync()) {
+                    executor.execute(this::seedAccounts);
+                } else {
+                    seedAccounts();
+                }
+            }
+
+            private void seedAccounts() {
+                // 서버 시작 단계로 기록 (/actuator/startup)
+                StartupStep step = applicationStartup.start(SEED_ACCOUNTS_STEP)
+                        .tag("async", String.valueOf(appPropertices.isSeedAccountsAsync()));
 
                 Account admin = Account.builder()
                         .email(appPropertices.getAdminUsername())
                         .password(appPropertices.getAdminPassword())
                         .roles(Set.of(AccountRole.ADMIN))
                         .build();
-                accountService.saveAccount(admin);
 
                 Account user = Account.builder()
                         .email(appPropertices.getUserUsername())
                         .password(appPropertices.getUserPassword())
                         .roles(Set.of(AccountRole.USER))
                         .build();
-                accountService.saveAccount(user);
+
+                try {
+                    List<Account> savedAccounts = accountService.saveAccountsIfAbsent(List.of(admin, user));
+                    step.tag("saved", String.valueOf(savedAccounts.size()));
+                } catch (RuntimeException e) {
+                    logger.error("Failed to seed accounts", e);
+                } finally {
+                    step.end();
+                }
             }
         };
     }
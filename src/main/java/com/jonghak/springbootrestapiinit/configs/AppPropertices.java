@@ -6,6 +6,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import javax.validation.constraints.NotEmpty;
+import java.time.Duration;
 
 @Component
 @ConfigurationProperties(prefix = "my-app")
@@ -29,4 +30,28 @@ public class AppPropertices {
     @NotEmpty
     private String clientSecret;
 
+    // access token 유효 시간(초) 10분
+    private int accessTokenValiditySeconds = 10 * 60;
+
+    // refresh token 유효 시간(초) 1시간
+    private int refreshTokenValiditySeconds = 6 * 10 * 60;
+
+    // 이벤트 목록(slice) 조회 시 대략적인 전체 건수를 캐시하는 시간(초)
+    private long eventCountCacheSeconds = 60;
+
+    // 로그인 시 같은 계정을 조회 중인 다른 요청의 결과를 기다리는 최대 시간
+    private Duration accountLoadTimeout = Duration.ofSeconds(5);
+
+    // 이벤트 일괄 생성 시 한번에 요청할 수 있는 최대 이벤트 수
+    private int eventBatchMaxSize = 1000;
+
+    // access token 없이 요청한 GET /api/** 는 인증 filter 없이 보안 응답 헤더만 추가하는 filter chain으로 처리 (@CurrentUser는 null)
+    private boolean anonymousReadFastPath = true;
+
+    // 서버 시작 시 기본 계정(admin, user) 추가를 별도 thread에서 실행 (추가가 끝나기 전에 요청 처리 시작)
+    private boolean seedAccountsAsync = true;
+
+    // 이벤트 목록(page, slice) 조회 시 한 페이지의 최대 이벤트 수 (더 크게 요청하면 이 크기로 조회)
+    private int eventPageMaxSize = 100;
+
 }
@@ -1,16 +1,23 @@
 package com.jonghak.springbootrestapiinit.configs;
 
 import com.jonghak.springbootrestapiinit.accounts.AccountService;
+import com.jonghak.springbootrestapiinit.accounts.PasswordHashingUnavailableException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.common.exceptions.OAuth2Exception;
 import org.springframework.security.oauth2.config.annotation.configurers.ClientDetailsServiceConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.AuthorizationServerConfigurerAdapter;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableAuthorizationServer;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerEndpointsConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerSecurityConfigurer;
+import org.springframework.security.oauth2.provider.error.DefaultWebResponseExceptionTranslator;
+import org.springframework.security.oauth2.provider.error.WebResponseExceptionTranslator;
 import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
 
 @Configuration
 @EnableAuthorizationServer
@@ -31,6 +38,10 @@ public class AuthServerConfig extends AuthorizationServerConfigurerAdapter {
     @Autowired
     AppPropertices appPropertices;
 
+    // my-app.token-store.type=jwt 인 경우에만 있음
+    @Autowired(required = false)
+    JwtAccessTokenConverter accessTokenConverter;
+
     @Override
     public void configure(AuthorizationServerSecurityConfigurer security) throws Exception {
         security.passwordEncoder(passwordEncoder);
@@ -43,17 +54,40 @@ public class AuthServerConfig extends AuthorizationServerConfigurerAdapter {
                 .authorizedGrantTypes("password", "refresh_token") // 인증서버가 지원할 토큰종류
                 .scopes("read", "write")
                 .secret(this.passwordEncoder.encode(appPropertices.getClientSecret()))
-                .accessTokenValiditySeconds(10 * 60)    // 토큰 유효한 시간 10분
-//                .accessTokenValiditySeconds(60)    // 토큰 유효한 시간 1분
-                .refreshTokenValiditySeconds(6 * 10 * 60);  // 재생성 토큰 유효한 시간 1시간
-//                .refreshTokenValiditySeconds(60);  // 재생성 토큰 유효한 시간 1분
+                .accessTokenValiditySeconds(appPropertices.getAccessTokenValiditySeconds())    // 토큰 유효한 시간 (기본 10분)
+                .refreshTokenValiditySeconds(appPropertices.getRefreshTokenValiditySeconds());  // 재생성 토큰 유효한 시간 (기본 1시간)
+
+    }
 
+    /**
+     * 비밀번호 hash pool이 가득 찬 경우(503) 다시 요청할 시간을 Retry-After 헤더로 응답
+     * @return
+     */
+    private WebResponseExceptionTranslator<OAuth2Exception> exceptionTranslator() {
+        DefaultWebResponseExceptionTranslator translator = new DefaultWebResponseExceptionTranslator();
+        return e -> {
+            ResponseEntity<OAuth2Exception> response = translator.translate(e);
+            if (!(response.getBody() instanceof PasswordHashingUnavailableException)) {
+                return response;
+            }
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(response.getBody());
+        };
     }
 
     @Override
     public void configure(AuthorizationServerEndpointsConfigurer endpoints) throws Exception {
         endpoints.authenticationManager(authenticationManager)
                 .userDetailsService(accountService)
-                .tokenStore(tokenStore);
+                .tokenStore(tokenStore)
+                .exceptionTranslator(exceptionTranslator());
+
+        if (accessTokenConverter != null) {
+            // JWT access token 발급. refresh token은 한번 사용하면 폐기하고 새로 발급
+            endpoints.accessTokenConverter(accessTokenConverter)
+                    .reuseRefreshTokens(false);
+        }
     }
 }
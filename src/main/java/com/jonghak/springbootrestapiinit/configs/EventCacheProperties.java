@@ -0,0 +1,30 @@
+package com.jonghak.springbootrestapiinit.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 이벤트 단건 조회 캐시 설정
+ */
+@Component
+@ConfigurationProperties(prefix = "my-app.event-cache")
+@Getter @Setter
+public class EventCacheProperties {
+
+    // false인 경우 캐시를 사용하지 않고 항상 DB에서 조회
+    private boolean enabled = true;
+
+    // 캐시에 보관할 최대 이벤트 수
+    private long maximumSize = 1000;
+
+    // 캐시에 저장된 후 만료되는 시간
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    // 캐시 miss 시 같은 이벤트를 조회 중인 다른 요청의 결과를 기다리는 최대 시간
+    private Duration loadTimeout = Duration.ofSeconds(5);
+
+}
@@ -0,0 +1,32 @@
+package com.jonghak.springbootrestapiinit.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 비밀번호 hash(bcrypt) 설정
+ */
+@Component
+@ConfigurationProperties(prefix = "my-app.password-hashing")
+@Getter @Setter
+public class PasswordHashingProperties {
+
+    // bcrypt cost (4 ~ 31). 변경하면 기존 계정은 다음 로그인 시 새 cost로 다시 hash
+    private int bcryptStrength = 10;
+
+    // hash 계산 thread 수 (bcrypt는 CPU만 사용하므로 CPU core 수 이하)
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+
+    // hash 계산 대기열 크기. 대기열이 가득 차면 바로 503 응답
+    // timeout 동안 처리할 수 없는 만큼 대기하면 결국 timeout(503)되므로 pool 크기 x (timeout / hash 1회 시간) 이하로 설정
+    private int queueCapacity = 100;
+
+    // hash 계산 결과를 기다리는 최대 시간
+    // 이미 계산 중인 hash는 취소되지 않으므로 timeout 후에도 계산이 끝날 때까지 pool thread를 사용함
+    private Duration timeout = Duration.ofSeconds(5);
+
+}
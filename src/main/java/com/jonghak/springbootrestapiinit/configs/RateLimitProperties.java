@@ -0,0 +1,67 @@
+package com.jonghak.springbootrestapiinit.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 요청 수 제한(rate limit) 설정
+ * 경로별로 token bucket(capacity개를 refillPeriod 동안 다시 채움)을 사용자(계정, IP)마다 만들어서 제한
+ */
+@Component
+@ConfigurationProperties(prefix = "my-app.rate-limit")
+@Getter @Setter
+public class RateLimitProperties {
+
+    // false인 경우 요청 수를 제한하지 않음
+    private boolean enabled = true;
+
+    // 보관할 최대 bucket 수. 초과하면 오래 사용하지 않은 bucket부터 삭제
+    private long maximumBuckets = 100_000;
+
+    // 이 시간 동안 요청이 없는 bucket은 삭제 (refillPeriod 이상이어야 함)
+    private Duration bucketIdleTimeout = Duration.ofMinutes(10);
+
+    // 제한할 경로 (먼저 선언한 경로부터 비교)
+    private List<Route> routes = new ArrayList<>(List.of(
+            new Route("token", EnumSet.of(HttpMethod.POST), "/oauth/token", 20, Duration.ofMinutes(1)),
+            new Route("events-write", EnumSet.of(HttpMethod.POST, HttpMethod.PUT), "/api/events/**", 60, Duration.ofMinutes(1))));
+
+    @Getter @Setter
+    public static class Route {
+
+        // bucket 구분 이름 (metrics, 로그 용도)
+        private String name;
+
+        // 제한할 HTTP method (없으면 모든 method)
+        private Set<HttpMethod> methods = EnumSet.noneOf(HttpMethod.class);
+
+        // 제한할 경로 (ant pattern)
+        private String pattern;
+
+        // 연속으로 허용하는 최대 요청 수
+        private long capacity;
+
+        // capacity개의 요청을 다시 허용하는 데 걸리는 시간
+        private Duration refillPeriod;
+
+        public Route() {
+        }
+
+        public Route(String name, Set<HttpMethod> methods, String pattern, long capacity, Duration refillPeriod) {
+            this.name = name;
+            this.methods = methods;
+            this.pattern = pattern;
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+        }
+    }
+}
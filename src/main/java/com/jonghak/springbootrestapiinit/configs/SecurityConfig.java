@@ -1,18 +1,27 @@
 package com.jonghak.springbootrestapiinit.configs;
 
 import com.jonghak.springbootrestapiinit.accounts.AccountService;
+import com.jonghak.springbootrestapiinit.tokens.AccountUserAuthenticationConverter;
+import com.jonghak.springbootrestapiinit.tokens.BoundedInMemoryTokenStore;
+import com.jonghak.springbootrestapiinit.tokens.JdbcNearCacheTokenStore;
+import com.jonghak.springbootrestapiinit.tokens.RevocableJwtTokenStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
 import org.springframework.security.oauth2.provider.token.TokenStore;
-import org.springframework.security.oauth2.provider.token.store.InMemoryTokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.util.StringUtils;
 
 @Configuration
 @EnableWebSecurity
@@ -24,9 +33,54 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    /**
+     * token 저장소 (my-app.token-store.type)
+     * MEMORY : 최대 크기, 만료 시간이 있는 메모리 token 저장소
+     * JWT : 서명된 JWT를 발급하고 요청마다 서명만 검증 (폐기한 refresh token만 보관)
+     * JDBC : DB에 token을 보관하고 서버별 near cache로 조회 (서버 여러 대에서 같은 token 사용)
+     * @param tokenStoreProperties
+     * @param appPropertices
+     * @param accessTokenConverter
+     * @param jdbcTemplate
+     * @param meterRegistry
+     * @return
+     */
+    @Bean
+    public TokenStore tokenStore(TokenStoreProperties tokenStoreProperties,
+                                 AppPropertices appPropertices,
+                                 ObjectProvider<JwtAccessTokenConverter> accessTokenConverter,
+                                 ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        if (tokenStoreProperties.getType() == TokenStoreProperties.Type.JWT) {
+            return new RevocableJwtTokenStore(accessTokenConverter.getObject(), tokenStoreProperties, meterRegistry);
+        }
+        if (tokenStoreProperties.getType() == TokenStoreProperties.Type.JDBC) {
+            return new JdbcNearCacheTokenStore(jdbcTemplate.getObject(), tokenStoreProperties, meterRegistry);
+        }
+        return new BoundedInMemoryTokenStore(tokenStoreProperties, appPropertices, meterRegistry);
+    }
+
+    /**
+     * JWT access token 서명, 검증
+     * 서명 key(my-app.token-store.signing-key)가 없으면 서버를 시작하지 않음
+     * (임의의 key를 사용하면 재시작할 때마다 발급한 token을 모두 사용할 수 없고 서버마다 key가 달라짐)
+     * @param tokenStoreProperties
+     * @return
+     */
     @Bean
-    public TokenStore tokenStore() {
-        return new InMemoryTokenStore();
+    @ConditionalOnProperty(prefix = "my-app.token-store", name = "type", havingValue = "jwt")
+    public JwtAccessTokenConverter accessTokenConverter(TokenStoreProperties tokenStoreProperties) {
+        DefaultAccessTokenConverter accessTokenConverter = new DefaultAccessTokenConverter();
+        accessTokenConverter.setUserTokenConverter(new AccountUserAuthenticationConverter());
+
+        JwtAccessTokenConverter jwtAccessTokenConverter = new JwtAccessTokenConverter();
+        jwtAccessTokenConverter.setAccessTokenConverter(accessTokenConverter);
+        String signingKey = tokenStoreProperties.getSigningKey();
+        if (!StringUtils.hasText(signingKey)) {
+            throw new IllegalStateException("my-app.token-store.signing-key is required when my-app.token-store.type=jwt");
+        }
+        jwtAccessTokenConverter.setSigningKey(signingKey);
+        return jwtAccessTokenConverter;
     }
 
     /**
@@ -56,6 +110,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     /**
      * Spring Security 예외처리
      * servlet에서 Filter를 적용할지 여부 결정 (Spring Security 인입 전 예외처리)
+     * (access token 없이 요청한 GET /api/** 는 AnonymousReadSecurityConfig의 filter chain에서 처리)
      * @param web
      * @throws Exception
      */
@@ -0,0 +1,95 @@
+package com.jonghak.springbootrestapiinit.configs;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.tool.schema.internal.HibernateSchemaManagementTool;
+import org.hibernate.tool.schema.spi.DelayedDropAction;
+import org.hibernate.tool.schema.spi.ExecutionOptions;
+import org.hibernate.tool.schema.spi.SchemaCreator;
+import org.hibernate.tool.schema.spi.SchemaDropper;
+import org.hibernate.tool.schema.spi.SchemaMigrator;
+import org.hibernate.tool.schema.spi.SchemaValidator;
+import org.hibernate.tool.schema.spi.SourceDescriptor;
+import org.hibernate.tool.schema.spi.TargetDescriptor;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.Map;
+
+/**
+ * Hibernate schema 작업(ddl-auto) 시간을 서버 시작 단계로 기록 (/actuator/startup)
+ * EntityManagerFactory bean 생성 시간(spring.beans.instantiate) 중 DDL 실행 시간을 따로 확인하기 위해 사용
+ * 단계 이름 : my-app.hibernate.schema-create, schema-drop, schema-migrate, schema-validate
+ */
+public class StartupStepSchemaManagementTool extends HibernateSchemaManagementTool {
+
+    private static final String STEP_PREFIX = "my-app.hibernate.";
+
+    private final ApplicationStartup applicationStartup;
+
+    public StartupStepSchemaManagementTool(ApplicationStartup applicationStartup) {
+        this.applicationStartup = applicationStartup;
+    }
+
+    @Override
+    public SchemaCreator getSchemaCreator(Map options) {
+        SchemaCreator schemaCreator = super.getSchemaCreator(options);
+        return (metadata, executionOptions, sourceDescriptor, targetDescriptor) -> {
+            StartupStep step = this.applicationStartup.start(STEP_PREFIX + "schema-create");
+            try {
+                schemaCreator.doCreation(metadata, executionOptions, sourceDescriptor, targetDescriptor);
+            } finally {
+                step.end();
+            }
+        };
+    }
+
+    @Override
+    public SchemaDropper getSchemaDropper(Map options) {
+        SchemaDropper schemaDropper = super.getSchemaDropper(options);
+        return new SchemaDropper() {
+            @Override
+            public void doDrop(Metadata metadata, ExecutionOptions executionOptions,
+                               SourceDescriptor sourceDescriptor, TargetDescriptor targetDescriptor) {
+                StartupStep step = applicationStartup.start(STEP_PREFIX + "schema-drop");
+                try {
+                    schemaDropper.doDrop(metadata, executionOptions, sourceDescriptor, targetDescriptor);
+                } finally {
+                    step.end();
+                }
+            }
+
+            @Override
+            public DelayedDropAction buildDelayedAction(Metadata metadata, ExecutionOptions executionOptions,
+                                                        SourceDescriptor sourceDescriptor) {
+                // 종료 시 drop(create-drop)은 시작 단계가 아니므로 기록하지 않음
+                return schemaDropper.buildDelayedAction(metadata, executionOptions, sourceDescriptor);
+            }
+        };
+    }
+
+    @Override
+    public SchemaMigrator getSchemaMigrator(Map options) {
+        SchemaMigrator schemaMigrator = super.getSchemaMigrator(options);
+        return (metadata, executionOptions, targetDescriptor) -> {
+            StartupStep step = this.applicationStartup.start(STEP_PREFIX + "schema-migrate");
+            try {
+                schemaMigrator.doMigration(metadata, executionOptions, targetDescriptor);
+            } finally {
+                step.end();
+            }
+        };
+    }
+
+    @Override
+    public SchemaValidator getSchemaValidator(Map options) {
+        SchemaValidator schemaValidator = super.getSchemaValidator(options);
+        return (metadata, executionOptions) -> {
+            StartupStep step = this.applicationStartup.start(STEP_PREFIX + "schema-validate");
+            try {
+                schemaValidator.doValidation(metadata, executionOptions);
+            } finally {
+                step.end();
+            }
+        };
+    }
+}
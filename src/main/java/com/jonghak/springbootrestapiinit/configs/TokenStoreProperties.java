@@ -0,0 +1,71 @@
+package com.jonghak.springbootrestapiinit.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * OAuth2 token 저장소 설정
+ */
+@Component
+@ConfigurationProperties(prefix = "my-app.token-store")
+@Getter @Setter
+public class TokenStoreProperties {
+
+    // MEMORY : token을 서버 메모리에 보관, JWT : 서명된 JWT access token 발급 (resource server에서 저장소 조회 없이 검증)
+    // JWT인 경우 폐기한 refresh token 목록은 서버별로 보관하므로 서버 한 대에서만 사용
+    // JDBC : token을 DB에 보관 (서버 여러 대에서 같은 token 사용)
+    private Type type = Type.MEMORY;
+
+    // JWT 서명 key (HMAC). type=jwt 이면 필수 (서버 재시작, 서버 여러 대에서 같은 key 사용)
+    private String signingKey;
+
+    // 보관할 최대 access token 수 (refresh token도 같은 수). 초과하면 오래 사용하지 않은 token부터 삭제
+    // JWT인 경우 폐기한 refresh token 최대 수. 초과하면 삭제하지 않고 refresh 요청 실패
+    private long maximumSize = 100_000;
+
+    private Jdbc jdbc = new Jdbc();
+
+    public enum Type {
+        MEMORY, JWT, JDBC
+    }
+
+    /**
+     * type=jdbc 설정
+     */
+    @Getter @Setter
+    public static class Jdbc {
+
+        // 서버별로 조회한 token을 보관하는 시간 (다른 서버에서 삭제한 token은 이 시간 후 반영)
+        private Duration nearCacheTtl = Duration.ofSeconds(5);
+
+        // DB에 없는 token 조회 결과를 보관하는 시간 (잘못된 token으로 반복 요청 시 DB 조회 방지)
+        // writeFlushInterval보다 길면 writeFlushInterval 사용 (다른 서버에서 발급한 token이 DB에 저장되기 전에 조회해도 계속 거부하지 않도록)
+        private Duration negativeCacheTtl = Duration.ofMillis(50);
+
+        // 서버별로 보관할 최대 token 수
+        private long nearCacheMaximumSize = 10_000;
+
+        // token 저장/삭제를 모아서 한번에 실행하는 최대 건수
+        private int writeBatchSize = 100;
+
+        // token 저장/삭제를 모아서 실행하는 주기 (다른 서버에서는 이 시간 후 조회 가능)
+        private Duration writeFlushInterval = Duration.ofMillis(50);
+
+        // token 저장/삭제 실패 시 재시도 최대 대기 시간 (writeFlushInterval부터 두배씩 늘림)
+        private Duration writeRetryMaxInterval = Duration.ofSeconds(30);
+
+        // token 저장/삭제 최대 실행 횟수. 계속 실패하는 작업은 로그(error)를 남기고 버림
+        private int writeMaxAttempts = 10;
+
+        // 만료된 token 삭제 주기
+        private Duration cleanupInterval = Duration.ofMinutes(1);
+
+        // 만료된 token을 한번에 삭제하는 최대 건수 (긴 lock 방지)
+        private int cleanupBatchSize = 1000;
+    }
+
+}
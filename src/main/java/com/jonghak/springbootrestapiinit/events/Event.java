@@ -1,5 +1,6 @@
 package com.jonghak.springbootrestapiinit.events;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.jonghak.springbootrestapiinit.accounts.Account;
 import com.jonghak.springbootrestapiinit.accounts.AccountSerializer;
@@ -7,6 +8,7 @@ import lombok.*;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 @Builder
 @AllArgsConstructor
@@ -16,10 +18,15 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(of = "id")
 @Entity
 public class Event {
-    @Id @GeneratedValue
+    // 일괄 생성 시 JDBC batch insert가 가능하도록 SEQUENCE 사용, allocationSize 만큼 id를 미리 할당(pooled optimizer)해서 건별 sequence 조회를 하지 않음
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_seq_generator")
+    @SequenceGenerator(name = "event_seq_generator", sequenceName = "event_seq", allocationSize = 50)
     private Integer id;
     private String name;
     private String description;
+    // 커서 조회의 정렬 기준이므로 NULL 불가 (V6)
+    @Column(nullable = false)
     private LocalDateTime beginEnrollmentDateTime;
     private LocalDateTime closeEnrollmentDateTime;
     private LocalDateTime beginEventDateTime;
@@ -32,9 +39,24 @@ public class Event {
     private boolean free;
     @Enumerated(EnumType.STRING)
     private EventStatus eventStatus = EventStatus.DRAFT;
-    @ManyToOne
+    // 응답에는 manager.id만 사용하므로 LAZY로 조회해서 목록 조회 시 manager(roles 포함)를 건별로 조회하지 않도록 함
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonSerialize(using = AccountSerializer.class)
     private Account manager;
+    // 낙관적 잠금 및 ETag 생성에 사용 (응답 본문에는 포함하지 않고 ETag 헤더로 제공)
+    @Version
+    @JsonIgnore
+    private Integer version;
+
+    /**
+     * 이벤트 생성자 확인
+     * manager는 LAZY 프록시이므로 equals 대신 id만 비교해서 manager 조회 쿼리가 실행되지 않도록 함
+     * @param account 현재 사용자정보
+     * @return
+     */
+    public boolean isManagedBy(Account account) {
+        return account != null && this.manager != null && Objects.equals(this.manager.getId(), account.getId());
+    }
 
     public void update() {
         //update free
@@ -0,0 +1,67 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.jonghak.springbootrestapiinit.common.ErrorsSerializer;
+import lombok.Getter;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.validation.Errors;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 이벤트 일괄 생성 결과
+ * 생성된 이벤트 목록과 함께 입력값이 잘못되어 생성하지 못한 항목의 순번(index)과 에러를 제공한다.
+ */
+public class EventBatchResource extends CollectionModel<EventResource> {
+
+    private final List<Failure> failures;
+
+    public EventBatchResource(List<EventResource> content, List<Failure> failures) {
+        super(content);
+        this.failures = failures;
+    }
+
+    @JsonProperty("failures")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    @Getter
+    @JsonSerialize(using = FailureSerializer.class)
+    public static class Failure {
+
+        // 요청 배열에서의 순번 (0부터 시작)
+        private final int index;
+
+        private final Errors errors;
+
+        public Failure(int index, Errors errors) {
+            this.index = index;
+            this.errors = errors;
+        }
+    }
+
+    /**
+     * {"index": 0, "errors": [...]} 형식으로 출력
+     * errors는 400 응답과 같은 형식이 되도록 ErrorsSerializer로 출력
+     */
+    static class FailureSerializer extends JsonSerializer<Failure> {
+
+        private final ErrorsSerializer errorsSerializer = new ErrorsSerializer();
+
+        @Override
+        public void serialize(Failure failure, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeNumberField("index", failure.getIndex());
+            errorsSerializer.serialize(failure.getErrors(), jsonGenerator, serializerProvider);
+            jsonGenerator.writeEndObject();
+        }
+    }
+}
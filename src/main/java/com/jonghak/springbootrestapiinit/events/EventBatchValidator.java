@@ -0,0 +1,65 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import com.jonghak.springbootrestapiinit.configs.AppPropertices;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import javax.validation.Validator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * 이벤트 일괄 생성 입력값 검증
+ * 단건 생성(@Valid + EventValidator)과 같은 검증을 항목별로 수행해서 항목마다 에러를 따로 모은다.
+ */
+@Component
+public class EventBatchValidator {
+
+    private final SpringValidatorAdapter validator;
+
+    private final EventValidator eventValidator;
+
+    private final AppPropertices appPropertices;
+
+    public EventBatchValidator(Validator validator, EventValidator eventValidator, AppPropertices appPropertices) {
+        this.validator = new SpringValidatorAdapter(validator);
+        this.eventValidator = eventValidator;
+        this.appPropertices = appPropertices;
+    }
+
+    /**
+     * 요청 전체 검증 (건수)
+     * @param eventDtos
+     * @param errors
+     */
+    public void validate(List<EventDto> eventDtos, Errors errors) {
+        if (eventDtos.isEmpty()) {
+            errors.reject("empty", "events is empty");
+        } else if (eventDtos.size() > appPropertices.getEventBatchMaxSize()) {
+            errors.reject("tooMany", "events must be less than or equal to " + appPropertices.getEventBatchMaxSize());
+        }
+    }
+
+    /**
+     * 항목 하나 검증
+     * @param eventDto
+     * @return 항목의 검증 결과
+     */
+    public Errors validate(EventDto eventDto) {
+        if (eventDto == null) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "eventDto");
+            errors.reject("empty", "event is empty");
+            return errors;
+        }
+
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+        validator.validate(eventDto, errors);
+        if (!errors.hasErrors()) {
+            eventValidator.validate(eventDto, errors);
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,139 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.jonghak.springbootrestapiinit.common.SingleFlight;
+import com.jonghak.springbootrestapiinit.configs.EventCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 이벤트 단건 조회 캐시 (read-through)
+ * 캐시에 없으면 EventRepository.findById로 조회해서 저장하고, 이벤트 생성/수정 시 갱신한다.
+ * 조회 중에 수정(evict)된 이벤트는 조회 결과를 캐시하지 않으므로, 수정한 서버에서는 수정 후 바로 수정된 이벤트를 조회한다.
+ * hit/miss/eviction 통계는 actuator metrics(cache.gets, cache.evictions 등, cache=events)로 확인할 수 있다.
+ */
+@Component
+public class EventCache {
+
+    public static final String CACHE_NAME = "events";
+
+    private final EventRepository eventRepository;
+
+    private final Cache<Integer, Event> cache;
+
+    // 같은 이벤트의 캐시 miss가 동시에 발생해도 DB 조회는 한번만 실행
+    // 이벤트가 수정(evict)된 후의 조회는 수정 전에 시작한 조회 결과를 받지 않도록 이벤트별 세대로 나눔
+    private final SingleFlight<LoadKey, Optional<Event>> loader;
+
+    // 조회 중인 이벤트 id -> 조회 수, 세대 (조회 중에 evict 되면 세대 증가, 조회가 모두 끝나면 삭제)
+    private final ConcurrentMap<Integer, LoadState> loading = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+
+    public EventCache(EventRepository eventRepository,
+                      EventCacheProperties eventCacheProperties,
+                      ObjectProvider<MeterRegistry> meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.enabled = eventCacheProperties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(eventCacheProperties.getMaximumSize())
+                .expireAfterWrite(eventCacheProperties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.loader = new SingleFlight<>(eventCacheProperties.getLoadTimeout());
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, this.cache, CACHE_NAME));
+    }
+
+    /**
+     * 이벤트 조회
+     * 조회 결과는 여러 요청이 공유하므로 수정하지 않고 읽기 용도로만 사용해야 한다. (수정 시에는 EventRepository 사용)
+     * @param id
+     * @return
+     */
+    public Optional<Event> findById(Integer id) {
+        if (!enabled) {
+            return this.eventRepository.findById(id);
+        }
+
+        Event event = this.cache.getIfPresent(id);
+        if (event != null) {
+            return Optional.of(event);
+        }
+
+        LoadState state = this.loading.compute(id, (key, current) -> {
+            LoadState loadState = current == null ? new LoadState() : current;
+            loadState.loads++;
+            return loadState;
+        });
+        try {
+            // 존재하지 않는 이벤트는 캐시하지 않음
+            return this.loader.load(new LoadKey(id, state.generation), key -> {
+                Optional<Event> optionalEvent = this.eventRepository.findById(key.getId());
+                optionalEvent.ifPresent(e -> putIfNotEvicted(e, state, key.getGeneration()));
+                return optionalEvent;
+            });
+        } finally {
+            this.loading.computeIfPresent(id, (key, current) -> --current.loads == 0 ? null : current);
+        }
+    }
+
+    /**
+     * 조회를 시작한 후 같은 이벤트가 evict 되지 않은 경우에만 저장
+     * evict는 세대를 먼저 증가시킨 후 삭제하므로, 확인 후 저장 사이에 evict 되어도 저장한 이벤트는 삭제된다.
+     */
+    private void putIfNotEvicted(Event event, LoadState state, long loadGeneration) {
+        this.cache.asMap().compute(event.getId(),
+                (id, cached) -> state.generation == loadGeneration ? event : cached);
+    }
+
+    public void put(Event event) {
+        if (enabled) {
+            this.cache.put(event.getId(), event);
+        }
+    }
+
+    public void evict(Integer id) {
+        // 조회 중인 이벤트만 세대 증가 (evict 후 시작한 조회는 수정된 이벤트를 조회)
+        this.loading.computeIfPresent(id, (key, current) -> {
+            current.generation++;
+            return current;
+        });
+        this.cache.invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return this.cache.stats();
+    }
+
+    private static class LoadState {
+
+        // loading map의 compute 안에서만 변경
+        private int loads;
+
+        private volatile long generation;
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    private static class LoadKey {
+
+        private final Integer id;
+
+        private final long generation;
+
+        LoadKey(Integer id, long generation) {
+            this.id = id;
+            this.generation = generation;
+        }
+    }
+}
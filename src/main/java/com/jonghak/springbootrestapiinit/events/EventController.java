@@ -3,28 +3,41 @@ package com.jonghak.springbootrestapiinit.events;
 import com.jonghak.springbootrestapiinit.accounts.Account;
 import com.jonghak.springbootrestapiinit.accounts.CurrentUser;
 import com.jonghak.springbootrestapiinit.common.ErrorsResource;
-import org.modelmapper.ModelMapper;
+import com.jonghak.springbootrestapiinit.common.SliceResource;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping(value = "/api/events", produces = MediaTypes.HAL_JSON_VALUE)
@@ -32,14 +45,31 @@ public class EventController {
 
     private final EventRepository eventRepository;
 
-    private final ModelMapper modelMapper;
+    private final EventMapper eventMapper;
 
     private final EventValidator eventValidator;
 
-    public EventController(EventRepository eventRepository, ModelMapper modelMapper, EventValidator eventValidator) {
+    private final EventCountEstimator eventCountEstimator;
+
+    private final EventCache eventCache;
+
+    private final EventExporter eventExporter;
+
+    private final EventBatchValidator eventBatchValidator;
+
+    private final EventSortPolicy eventSortPolicy;
+
+    public EventController(EventRepository eventRepository, EventMapper eventMapper, EventValidator eventValidator,
+                           EventCountEstimator eventCountEstimator, EventCache eventCache, EventExporter eventExporter,
+                           EventBatchValidator eventBatchValidator, EventSortPolicy eventSortPolicy) {
         this.eventRepository = eventRepository;
-        this.modelMapper = modelMapper;
+        this.eventMapper = eventMapper;
         this.eventValidator = eventValidator;
+        this.eventCountEstimator = eventCountEstimator;
+        this.eventCache = eventCache;
+        this.eventExporter = eventExporter;
+        this.eventBatchValidator = eventBatchValidator;
+        this.eventSortPolicy = eventSortPolicy;
     }
 
     @PostMapping
@@ -55,38 +85,122 @@ public class EventController {
             return badRequest(errors);
         }
 
-        Event event = modelMapper.map(eventDto, Event.class);
-        event.update();
+        Event event = eventMapper.toEvent(eventDto);
         event.setManager(currentUser); // 현재 유저정보 세팅
         Event newEvent = this.eventRepository.save(event);
+        this.eventCache.put(newEvent);
 
 
-        WebMvcLinkBuilder selfLinkBuilder = linkTo(EventController.class).slash(newEvent.getId());
-        URI createdUri = selfLinkBuilder.toUri();
+        URI createdUri = URI.create(EventLinks.eventUri(newEvent.getId()));
         /*EntityModel eventResource = EntityModel.of(newEvent,
                 linkTo(EventController.class).withRel("query-events"),
                 selfLinkBuilder.withSelfRel(),
                 selfLinkBuilder.withRel("update-event"));*/
         EventResource eventResource = new EventResource(newEvent,
-                selfLinkBuilder.withRel("update-event"),
-                linkTo(EventController.class).withRel("query-events"),
-                Link.of("/docs/index.html#resources-events-create").withRel("profile"));
-        return ResponseEntity.created(createdUri).body(eventResource);
+                EventLinks.updateEvent(newEvent.getId()),
+                EventLinks.queryEvents(),
+                EventLinks.profile("resources-events-create"));
+        return ResponseEntity.created(createdUri).eTag(EventETags.of(newEvent, true)).body(eventResource);
+    }
+
+    /**
+     * 이벤트 일괄 생성
+     * 항목별로 검증해서 입력값이 올바른 이벤트만 한번에 저장(JDBC batch insert)하고, 잘못된 항목은 순번과 에러를 응답한다.
+     * @param eventDtos
+     * @param currentUser
+     * @return 생성된 이벤트가 있으면 201, 모든 항목이 잘못된 경우 400
+     */
+    @PostMapping("/batch")
+    public ResponseEntity createEvents(@RequestBody List<EventDto> eventDtos,
+                                       @CurrentUser Account currentUser) {
+        Errors errors = new MapBindingResult(new HashMap<>(), "eventDtoList");
+        eventBatchValidator.validate(eventDtos, errors);
+        if (errors.hasErrors()) {
+            return badRequest(errors);
+        }
+
+        List<Event> events = new ArrayList<>();
+        List<EventBatchResource.Failure> failures = new ArrayList<>();
+        for (int i = 0; i < eventDtos.size(); i++) {
+            EventDto eventDto = eventDtos.get(i);
+            Errors itemErrors = eventBatchValidator.validate(eventDto);
+            if (itemErrors.hasErrors()) {
+                failures.add(new EventBatchResource.Failure(i, itemErrors));
+                continue;
+            }
+
+            Event event = eventMapper.toEvent(eventDto);
+            event.setManager(currentUser);
+            events.add(event);
+        }
+
+        List<EventResource> eventResources = this.eventRepository.saveAll(events).stream()
+                .map(e -> new EventResource(e))
+                .collect(Collectors.toList());
+        EventBatchResource batchResource = new EventBatchResource(eventResources, failures);
+        batchResource.add(EventLinks.queryEvents());
+        batchResource.add(EventLinks.profile("resources-events-batch"));
+
+        if (eventResources.isEmpty()) {
+            return ResponseEntity.badRequest().body(batchResource);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(batchResource);
     }
 
     private ResponseEntity<ErrorsResource> badRequest(Errors errors) {
         return ResponseEntity.badRequest().body(new ErrorsResource(errors));
     }
 
-    @GetMapping("search")
-    public ResponseEntity searchEvent() {
-        URI searchUri = linkTo(EventController.class).slash("{id}").toUri();
-        return ResponseEntity.created(searchUri).build();
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+
+    /**
+     * 이벤트 검색
+     * 검색 조건 중 값이 있는 조건만 AND로 적용해서 페이지 단위로 조회
+     * 정렬, 페이지 크기는 이벤트 조회와 같은 정책(EventSortPolicy)을 사용
+     * @param condition 검색 조건
+     * @param errors
+     * @param pageable
+     * @param assembler
+     * @param account 현재 사용자정보
+     * @return
+     */
+    @GetMapping("/search")
+    public ResponseEntity searchEvents(@Valid EventSearchCondition condition,
+                                       Errors errors,
+                                       Pageable pageable,
+                                       PagedResourcesAssembler<Event> assembler,
+                                       @CurrentUser Account account) {
+        if (errors.hasErrors()) {
+            return badRequest(errors);
+        }
+
+        eventValidator.validate(condition, errors);
+        if (errors.hasErrors()) {
+            return badRequest(errors);
+        }
+
+        Errors pageableErrors = new MapBindingResult(new HashMap<>(), "pageable");
+        Pageable sortedPageable = this.eventSortPolicy.apply(pageable, pageableErrors);
+        if (pageableErrors.hasErrors()) {
+            return badRequest(pageableErrors);
+        }
+
+        Page<Event> page = this.eventRepository.findAll(EventSpecs.search(condition), sortedPageable);
+        PagedModel<EntityModel<Event>> pagedModels = assembler.toModel(page, e -> new EventResource(e));
+        pagedModels.add(EventLinks.profile("resources-events-search"));
+
+        if(account != null){
+            pagedModels.add(EventLinks.createEvent());
+        }
+        return ResponseEntity.ok(pagedModels);
     }
 
 
     /**
      * 이벤트 조회
+     * 정렬은 index가 있는 property만 가능하고(EventSortPolicy) 그 외 정렬은 400
      * @param pageable
      * @param assembler
      * @param account 현재 사용자정보 (spring security의 User 객체)
@@ -95,6 +209,7 @@ public class EventController {
     @GetMapping
     public ResponseEntity queryEvents(Pageable pageable,
                                      PagedResourcesAssembler<Event> assembler,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
                                      @CurrentUser Account account) {
         /**
          * authentication.userAuthentication.principal : spring security의 User객체 (username, password 등등)
@@ -104,41 +219,220 @@ public class EventController {
          * User principal = (User) authentication.getPrincipal(); // spring security의 Userr 객체로 사용 가능
          */
 
-        Page<Event> page = this.eventRepository.findAll(pageable);
+        Errors errors = new MapBindingResult(new HashMap<>(), "pageable");
+        Pageable sortedPageable = this.eventSortPolicy.apply(pageable, errors);
+        if (errors.hasErrors()) {
+            return badRequest(errors);
+        }
+
+        Page<Event> page = this.eventRepository.findAll(sortedPageable);
+        // 목록이 변경되지 않았으면 HAL 응답을 만들지 않고 304 응답
+        String eTag = EventETags.of(page, EventLinks.currentUri(), page.getTotalElements(), account != null);
+        if (EventETags.isNotModified(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+
         PagedModel<EntityModel<Event>> pagedModels = assembler.toModel(page, e -> new EventResource(e));
-        pagedModels.add(Link.of("/docs/index.html#resources-events-list").withRel("profile"));
+        pagedModels.add(EventLinks.profile("resources-events-list"));
 
         // spring seurity의 User 유무에 따라 create-event(이벤트생성) link 추가
         if(account != null){
-            pagedModels.add(linkTo(EventController.class).withRel("create-event"));
+            pagedModels.add(EventLinks.createEvent());
         }
-        return ResponseEntity.ok(pagedModels);
+        return ResponseEntity.ok().eTag(eTag).body(pagedModels);
 
     }
 
+    /**
+     * 이벤트 Slice 조회
+     * count 쿼리 없이 size + 1건을 조회해서 다음 페이지 존재 여부만 제공한다.
+     * 정렬은 이벤트 조회와 같은 정책(EventSortPolicy)을 사용
+     * @param pageable
+     * @param estimateTotal true인 경우 대략적인 전체 건수(totalElementsEstimate)를 함께 제공
+     * @param account 현재 사용자정보
+     * @return
+     */
+    @GetMapping("/slice")
+    public ResponseEntity queryEventsBySlice(Pageable pageable,
+                                             @RequestParam(defaultValue = "false") boolean estimateTotal,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                             @CurrentUser Account account) {
+        Errors errors = new MapBindingResult(new HashMap<>(), "pageable");
+        Pageable sortedPageable = this.eventSortPolicy.apply(pageable, errors);
+        if (errors.hasErrors()) {
+            return badRequest(errors);
+        }
+
+        Slice<Event> slice = this.eventRepository.findSliceBy(sortedPageable);
+        String eTag = EventETags.of(slice, EventLinks.currentUri(), slice.hasNext(), account != null);
+        if (!estimateTotal && EventETags.isNotModified(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+
+        List<EventResource> eventResources = slice.stream()
+                .map(e -> new EventResource(e))
+                .collect(Collectors.toList());
+        SliceResource<EventResource> sliceModels = new SliceResource<>(eventResources, slice,
+                estimateTotal ? this.eventCountEstimator.estimate() : null);
+        sliceModels.add(EventLinks.profile("resources-events-slice"));
+
+        if(account != null){
+            sliceModels.add(EventLinks.createEvent());
+        }
+        // 대략적인 전체 건수는 목록과 관계없이 변하므로 ETag를 제공하지 않음
+        return estimateTotal ? ResponseEntity.ok(sliceModels) : ResponseEntity.ok().eTag(eTag).body(sliceModels);
+    }
+
+    /**
+     * 이벤트 커서(keyset) 조회
+     * 페이지 번호 대신 마지막으로 조회한 이벤트 위치(after/before)부터 조회하므로 뒤쪽 페이지도 조회 비용이 일정하다.
+     * @param after 이 커서 다음 이벤트부터 조회
+     * @param before 이 커서 이전 이벤트까지 조회
+     * @param size 조회할 이벤트 수 (my-app.event-page-max-size 까지)
+     * @param account 현재 사용자정보
+     * @return
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity queryEventsByCursor(@RequestParam(required = false) String after,
+                                              @RequestParam(required = false) String before,
+                                              @RequestParam(defaultValue = "20") int size,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                              @CurrentUser Account account) {
+        Errors errors = new MapBindingResult(new HashMap<>(), "eventCursor");
+        if (after != null && before != null) {
+            errors.reject("wrongValue", "after and before cannot be used together");
+        }
+        if (size < 1) {
+            errors.reject("wrongValue", "size is Wrong");
+        }
+        EventCursor cursor = null;
+        try {
+            if (after != null || before != null) {
+                cursor = EventCursor.decode(after != null ? after : before);
+            }
+        } catch (IllegalArgumentException e) {
+            errors.reject("wrongValue", "cursor is Wrong");
+        }
+        if (errors.hasErrors()) {
+            return badRequest(errors);
+        }
+
+        // 이벤트 조회와 같은 최대 페이지 크기까지만 조회
+        size = this.eventSortPolicy.pageSize(size);
+        // 다음(이전) 페이지 존재 여부를 알기 위해 한 건 더 조회
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Event> events;
+        boolean hasNext;
+        boolean hasPrev;
+        if (before != null) {
+            events = new ArrayList<>(this.eventRepository.findAllBefore(cursor.getBeginEnrollmentDateTime(), cursor.getId(), limit));
+            hasPrev = events.size() > size;
+            if (hasPrev) {
+                events.remove(size);
+            }
+            Collections.reverse(events);
+            // 커서 이후 이벤트는 삭제되었을 수 있으므로 마지막 이벤트 다음 이벤트가 있는지 한 건만 조회
+            hasNext = !events.isEmpty() && hasEventAfter(events.get(events.size() - 1));
+        } else {
+            events = new ArrayList<>(cursor == null
+                    ? this.eventRepository.findAllByOrderByBeginEnrollmentDateTimeAscIdAsc(limit)
+                    : this.eventRepository.findAllAfter(cursor.getBeginEnrollmentDateTime(), cursor.getId(), limit));
+            hasNext = events.size() > size;
+            hasPrev = cursor != null;
+            if (hasNext) {
+                events.remove(size);
+            }
+        }
+
+        String eTag = EventETags.of(events, EventLinks.currentUri(), hasNext, hasPrev, account != null);
+        if (EventETags.isNotModified(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+
+        List<EventResource> eventResources = events.stream()
+                .map(e -> new EventResource(e))
+                .collect(Collectors.toList());
+        CollectionModel<EventResource> cursorModels = CollectionModel.of(eventResources);
+        cursorModels.add(cursorLink(after != null ? "after" : "before", after != null ? after : before, size).withSelfRel());
+        cursorModels.add(cursorLink(null, null, size).withRel(IanaLinkRelations.FIRST));
+        if (hasPrev && !events.isEmpty()) {
+            cursorModels.add(cursorLink("before", EventCursor.of(events.get(0)).encode(), size).withRel(IanaLinkRelations.PREV));
+        }
+        if (hasNext && !events.isEmpty()) {
+            cursorModels.add(cursorLink("after", EventCursor.of(events.get(events.size() - 1)).encode(), size).withRel(IanaLinkRelations.NEXT));
+        }
+        cursorModels.add(EventLinks.profile("resources-events-cursor"));
+
+        if(account != null){
+            cursorModels.add(EventLinks.createEvent());
+        }
+        return ResponseEntity.ok().eTag(eTag).body(cursorModels);
+    }
+
+    private boolean hasEventAfter(Event event) {
+        return !this.eventRepository.findAllAfter(event.getBeginEnrollmentDateTime(), event.getId(), PageRequest.of(0, 1)).isEmpty();
+    }
+
+    private Link cursorLink(String name, String token, int size) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(EventLinks.baseUri()).path("/cursor");
+        if (token != null) {
+            builder.queryParam(name, token);
+        }
+        return Link.of(builder.queryParam("size", size).toUriString());
+    }
+
+    /**
+     * 이벤트 전체 내보내기 (NDJSON)
+     * 페이지 단위 조회 없이 전체 이벤트를 한 줄에 하나씩 스트리밍으로 응답한다.
+     * @param eventStatus 이벤트 상태 필터
+     * @param manager 이벤트 생성자 id 필터
+     * @return
+     */
+    @GetMapping(value = "/export", produces = EventExporter.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEvents(@RequestParam(required = false) EventStatus eventStatus,
+                                                              @RequestParam(required = false) Integer manager,
+                                                              HttpServletRequest request) {
+        // 전체 이벤트를 보낼 때까지 걸리는 시간은 이벤트 수에 따라 다르므로 내보내기 요청만 비동기 timeout 없음
+        WebAsyncUtils.getAsyncManager(request)
+                .registerCallableInterceptor(EventExporter.class.getName(), EventExporter.NO_TIMEOUT);
+        StreamingResponseBody body = outputStream -> this.eventExporter.export(eventStatus, manager, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(EventExporter.APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<EventResource> getEvent(@PathVariable Integer id,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
                                                   @CurrentUser Account currentUser) {
-        Optional<Event> optionalEvent = this.eventRepository.findById(id);
+        Optional<Event> optionalEvent = this.eventCache.findById(id);
         if (!optionalEvent.isPresent()) {
-            return ResponseEntity.notFound().header(HttpHeaders.LOCATION,linkTo(EventController.class).withRel("query-events").toUri().toString()).build();
+            return ResponseEntity.notFound().header(HttpHeaders.LOCATION, EventLinks.baseUri()).build();
         }
 
         Event event = optionalEvent.get();
+        boolean managed = event.isManagedBy(currentUser);
+        // 이벤트가 변경되지 않았으면 EventResource를 만들지 않고 304 응답
+        String eTag = EventETags.of(event, managed);
+        if (EventETags.isNotModified(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+
         EventResource eventResource = new EventResource(event,
-                Link.of("/docs/index.html#resources-events-get").withRel("profile"));
+                EventLinks.profile("resources-events-get"));
 
         // 조회한 event의 생성자가 현재 사용자와 동일하면 update-event link 추가
-        if(event.getManager().equals(currentUser)) {
-            eventResource.add(linkTo(EventController.class).slash(event.getId()).withRel("update-event"));
+        if(managed) {
+            eventResource.add(EventLinks.updateEvent(event.getId()));
         }
-        return ResponseEntity.ok(eventResource);
+        return ResponseEntity.ok().eTag(eTag).body(eventResource);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity updateEvent(@PathVariable Integer id, 
                                       @RequestBody @Valid EventDto eventDto,
                                       Errors errors,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                       @CurrentUser Account currentUser) {
         Optional<Event> optionalEvent = this.eventRepository.findById(id);
         if(!optionalEvent.isPresent()){
@@ -158,16 +452,29 @@ public class EventController {
 
         // 수정할 event의 생성자가 현재 사용자가 아닐 경우 403(FORBIDDEN) : 액세스가 허용되지 않는 리소스 (권한X)
         // 참고 - 401(UNAUTHORIZED) : 인증되지 않았거나, 유효한 인증 정보가 부족한 경우
-        if(!existingEvent.getManager().equals(currentUser)) {
+        if(!existingEvent.isManagedBy(currentUser)) {
             return new ResponseEntity(HttpStatus.FORBIDDEN);
         }
 
-        this.modelMapper.map(eventDto, existingEvent);
-        Event savedEvent = this.eventRepository.save(existingEvent);
+        // If-Match의 version이 현재 version과 다르면 다른 사용자가 먼저 수정한 것이므로 412(PRECONDITION_FAILED)
+        if(ifMatch != null && !EventETags.matches(ifMatch, existingEvent)) {
+            return new ResponseEntity(HttpStatus.PRECONDITION_FAILED);
+        }
+
+        this.eventMapper.update(eventDto, existingEvent);
+        Event savedEvent;
+        try {
+            savedEvent = this.eventRepository.save(existingEvent);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // 조회 후 저장 사이에 다른 요청이 먼저 수정한 경우
+            return new ResponseEntity(HttpStatus.PRECONDITION_FAILED);
+        }
+        // 같은 서버에서는 수정 내용이 바로 조회되도록 캐시 삭제 (다음 조회 시 DB에서 다시 조회)
+        this.eventCache.evict(savedEvent.getId());
 
         EventResource eventResource = new EventResource(savedEvent,
-                Link.of("/docs/index.html#resources-events-update").withRel("profile"));
+                EventLinks.profile("resources-events-update"));
 
-        return ResponseEntity.ok(eventResource);
+        return ResponseEntity.ok().eTag(EventETags.of(savedEvent, true)).body(eventResource);
     }
 }
@@ -0,0 +1,81 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import com.jonghak.springbootrestapiinit.configs.AppPropertices;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이벤트 전체 건수 추정
+ * PostgreSQL이면 통계 정보(pg_class.reltuples)를 사용하고, 그 외에는 count 결과를 일정 시간 캐시해서 사용한다.
+ * 정확한 값이 아니므로 목록 조회 시 참고용으로만 사용
+ */
+@Component
+public class EventCountEstimator {
+
+    // search_path 기준의 event 테이블 (다른 schema의 같은 이름 테이블은 제외, 테이블이 없으면 조회 결과 없음)
+    private static final String RELTUPLES_SQL = "select reltuples::bigint from pg_class where oid = to_regclass('event')";
+
+    private final EventRepository eventRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AppPropertices appPropertices;
+
+    private final boolean postgres;
+
+    private volatile CachedCount cachedCount;
+
+    public EventCountEstimator(EventRepository eventRepository, DataSource dataSource, AppPropertices appPropertices) {
+        this.eventRepository = eventRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.appPropertices = appPropertices;
+        this.postgres = isPostgres(dataSource);
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(productName);
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+
+    public long estimate() {
+        if (postgres) {
+            List<Long> reltuples = jdbcTemplate.queryForList(RELTUPLES_SQL, Long.class);
+            // analyze 되기 전에는 -1(또는 0)이므로 count로 대체
+            if (!reltuples.isEmpty() && reltuples.get(0) != null && reltuples.get(0) > 0) {
+                return reltuples.get(0);
+            }
+        }
+        return cachedCount();
+    }
+
+    private long cachedCount() {
+        CachedCount current = this.cachedCount;
+        long now = System.nanoTime();
+        if (current == null || now - current.countedAt > TimeUnit.SECONDS.toNanos(appPropertices.getEventCountCacheSeconds())) {
+            current = new CachedCount(eventRepository.count(), now);
+            this.cachedCount = current;
+        }
+        return current.count;
+    }
+
+    private static class CachedCount {
+        private final long count;
+        private final long countedAt;
+
+        CachedCount(long count, long countedAt) {
+            this.count = count;
+            this.countedAt = countedAt;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 커서(keyset) 기반 페이징에 사용하는 위치 정보
+ * 마지막으로 조회한 이벤트의 (beginEnrollmentDateTime, id)를 클라이언트가 해석할 수 없는 토큰으로 변환한다.
+ * beginEnrollmentDateTime은 NOT NULL(V6)이므로 NULL을 표현하지 않는다.
+ */
+@Getter
+@EqualsAndHashCode
+public class EventCursor {
+
+    private static final String DELIMITER = ",";
+
+    private final LocalDateTime beginEnrollmentDateTime;
+
+    private final Integer id;
+
+    public EventCursor(LocalDateTime beginEnrollmentDateTime, Integer id) {
+        this.beginEnrollmentDateTime = beginEnrollmentDateTime;
+        this.id = id;
+    }
+
+    public static EventCursor of(Event event) {
+        return new EventCursor(event.getBeginEnrollmentDateTime(), event.getId());
+    }
+
+    public String encode() {
+        String raw = beginEnrollmentDateTime + DELIMITER + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 토큰을 커서로 변환
+     * @param token encode()로 생성된 토큰
+     * @return
+     * @throws IllegalArgumentException 토큰 형식이 잘못된 경우
+     */
+    public static EventCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] values = raw.split(DELIMITER);
+            if (values.length != 2) {
+                throw new IllegalArgumentException("cursor is Wrong");
+            }
+            return new EventCursor(LocalDateTime.parse(values[0]), Integer.valueOf(values[1]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("cursor is Wrong", e);
+        }
+    }
+}
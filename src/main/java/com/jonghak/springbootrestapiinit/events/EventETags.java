@@ -0,0 +1,87 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 이벤트 응답의 ETag 생성 및 비교
+ * 응답 본문을 만들지 않고 Event.version만으로 ETag를 계산해서, 변경이 없으면 직렬화 없이 304를 응답할 수 있도록 함
+ */
+public final class EventETags {
+
+    private EventETags() {
+    }
+
+    /**
+     * 이벤트 단건 ETag
+     * update-event link 포함 여부에 따라 응답이 달라지므로 생성자 여부도 ETag에 포함
+     * @param event
+     * @param managed 현재 사용자가 이벤트 생성자인지 여부
+     * @return
+     */
+    public static String of(Event event, boolean managed) {
+        return "\"" + event.getVersion() + (managed ? "-m" : "") + "\"";
+    }
+
+    /**
+     * 이벤트 목록 ETag
+     * 목록에 포함된 이벤트의 (id, version), 요청 URI, 목록 메타정보(전체 건수, 다음 페이지 여부 등)로 계산
+     * page, size, sort, cursor가 다르면 같은 이벤트 목록이라도 응답의 link가 달라지므로 요청 URI를 포함
+     * @param events
+     * @param requestUri 현재 요청 URI (query string 포함)
+     * @param parts 목록 응답에 영향을 주는 그 외 값
+     * @return
+     */
+    public static String of(Iterable<Event> events, String requestUri, Object... parts) {
+        StringBuilder builder = new StringBuilder(requestUri).append('|');
+        for (Event event : events) {
+            builder.append(event.getId()).append(':').append(event.getVersion()).append(',');
+        }
+        for (Object part : parts) {
+            builder.append('|').append(part);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * If-None-Match 비교 (weak comparison)
+     * @param ifNoneMatch If-None-Match 헤더
+     * @param eTag 현재 ETag
+     * @return 변경이 없으면 true
+     */
+    public static boolean isNotModified(String ifNoneMatch, String eTag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || stripWeak(candidate).equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Match 비교 (strong comparison)
+     * 생성자 여부와 관계없이 version이 같으면 일치하는 것으로 판단
+     * @param ifMatch If-Match 헤더
+     * @param event 현재 이벤트
+     * @return
+     */
+    public static boolean matches(String ifMatch, Event event) {
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(ifMatch)) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals(of(event, false)) || candidate.equals(of(event, true))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+}
@@ -0,0 +1,88 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+/**
+ * 이벤트 전체 내보내기 (NDJSON : 한 줄에 이벤트 하나)
+ * JDBC 커서로 읽은 이벤트를 한 건씩 바로 응답에 쓰고 persistence context에서 분리하므로
+ * 이벤트 수와 관계없이 사용하는 메모리가 일정하다.
+ */
+@Component
+public class EventExporter {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int FLUSH_INTERVAL = 100;
+
+    /**
+     * 내보내기 요청의 비동기 처리 timeout 해제 (spring.mvc.async.request-timeout은 다른 비동기 요청에 그대로 적용)
+     * 비동기 처리 시작 전에 실행되므로 요청별로 등록해서 사용
+     */
+    public static final CallableProcessingInterceptor NO_TIMEOUT = new CallableProcessingInterceptor() {
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            if (request instanceof AsyncWebRequest) {
+                ((AsyncWebRequest) request).setTimeout(-1L);
+            }
+        }
+    };
+
+    private final EventRepository eventRepository;
+
+    private final ObjectMapper objectMapper;
+
+    // 이벤트마다 flush 하지 않고 FLUSH_INTERVAL 건마다 flush
+    private final ObjectWriter eventWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public EventExporter(EventRepository eventRepository, ObjectMapper objectMapper) {
+        this.eventRepository = eventRepository;
+        this.objectMapper = objectMapper;
+        this.eventWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public void export(EventStatus eventStatus, Integer managerId, OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // 이벤트 사이에는 기본 구분자(공백) 대신 줄바꿈만 사용
+        generator.setRootValueSeparator(null);
+
+        try (Stream<Event> events = eventRepository.streamAll(eventStatus, managerId)) {
+            Iterator<Event> iterator = events.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                Event event = iterator.next();
+                eventWriter.writeValue(generator, event);
+                generator.writeRaw('\n');
+                // 응답에 쓴 이벤트는 persistence context에서 분리
+                entityManager.detach(event);
+                if (++count % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.flush();
+    }
+}
@@ -0,0 +1,93 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * 이벤트 link 생성
+ * linkTo(EventController.class)는 호출할 때마다 controller mapping과 현재 요청 URI를 다시 계산하므로,
+ * 요청마다 한번만 계산한 base URI(예: http://localhost:8080/api/events)를 request attribute에 보관하고 id를 붙여서 link를 만든다.
+ */
+public final class EventLinks {
+
+    private static final String BASE_URI_ATTRIBUTE = EventLinks.class.getName() + ".BASE_URI";
+
+    private static final String PROFILE_PREFIX = "/docs/index.html#";
+
+    // profile link는 요청과 관계없이 같으므로 section별로 한번만 생성
+    private static final Map<String, Link> PROFILES = new ConcurrentHashMap<>();
+
+    private EventLinks() {
+    }
+
+    /**
+     * 현재 요청의 이벤트 base URI
+     * 요청 밖(RequestAttributes 없음)에서는 캐시하지 않고 매번 계산
+     * @return
+     */
+    public static String baseUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return linkTo(EventController.class).toUri().toString();
+        }
+
+        String baseUri = (String) attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (baseUri == null) {
+            baseUri = linkTo(EventController.class).toUri().toString();
+            attributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+        }
+        return baseUri;
+    }
+
+    /**
+     * 현재 요청 URI (요청 파라미터 포함)
+     * 목록 응답의 self/next/prev link는 이 URI의 page, size, sort 등으로 만들어짐
+     * query string이 아닌 request parameter로 만들어서, 파라미터 순서나 인코딩이 달라도 같은 URI가 됨
+     * @return
+     */
+    public static String currentUri() {
+        ServletUriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentRequestUri();
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        new TreeMap<>(request.getParameterMap()).forEach(builder::queryParam);
+        return builder.toUriString();
+    }
+
+    public static String eventUri(Integer id) {
+        return baseUri() + "/" + id;
+    }
+
+    public static Link self(Integer id) {
+        return Link.of(eventUri(id), IanaLinkRelations.SELF);
+    }
+
+    public static Link updateEvent(Integer id) {
+        return Link.of(eventUri(id), "update-event");
+    }
+
+    public static Link queryEvents() {
+        return Link.of(baseUri(), "query-events");
+    }
+
+    public static Link createEvent() {
+        return Link.of(baseUri(), "create-event");
+    }
+
+    /**
+     * @param section REST Docs 문서의 section id (예: resources-events-get)
+     * @return
+     */
+    public static Link profile(String section) {
+        return PROFILES.computeIfAbsent(section, s -> Link.of(PROFILE_PREFIX + s, "profile"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * EventDto -> Event 변환
+ * ModelMapper는 처음 사용할 때 reflection으로 type map을 만들고 호출할 때마다 property를 matching 하므로,
+ * 쓰기 요청마다 실행되는 변환은 직접 작성한 코드로 수행한다.
+ * EventDto, Event에 필드를 추가하면 여기에도 추가해야 한다. (EventMapperTest에서 ModelMapper 결과와 비교)
+ */
+@Component
+public class EventMapper {
+
+    /**
+     * 새 이벤트 생성
+     * free, offline은 입력값으로 다시 계산(Event.update)
+     * @param eventDto
+     * @return
+     */
+    public Event toEvent(EventDto eventDto) {
+        Event event = new Event();
+        update(eventDto, event);
+        return event;
+    }
+
+    /**
+     * 기존 이벤트에 입력값 반영
+     * id, eventStatus, manager, version은 변경하지 않고 free, offline은 입력값으로 다시 계산(Event.update)
+     * @param eventDto
+     * @param event
+     */
+    public void update(EventDto eventDto, Event event) {
+        event.setName(eventDto.getName());
+        event.setDescription(eventDto.getDescription());
+        event.setBeginEnrollmentDateTime(eventDto.getBeginEnrollmentDateTime());
+        event.setCloseEnrollmentDateTime(eventDto.getCloseEnrollmentDateTime());
+        event.setBeginEventDateTime(eventDto.getBeginEventDateTime());
+        event.setEndEventDateTime(eventDto.getEndEventDateTime());
+        event.setLocation(eventDto.getLocation());
+        event.setBasePrice(eventDto.getBasePrice());
+        event.setMaxPrice(eventDto.getMaxPrice());
+        event.setLimitOfEnrollment(eventDto.getLimitOfEnrollment());
+        event.update();
+    }
+}
@@ -1,6 +1,43 @@
 package com.jonghak.springbootrestapiinit.events;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface EventRepository extends JpaRepository<Event, Integer> {
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EventRepository extends JpaRepository<Event, Integer>, JpaSpecificationExecutor<Event>, EventRepositoryCustom {
+
+    /*
+     * Slice 조회 : size + 1건을 조회해서 다음 페이지 존재 여부만 확인하고 count 쿼리는 실행하지 않는다.
+     */
+    Slice<Event> findSliceBy(Pageable pageable);
+
+    /*
+     * 커서(keyset) 페이징 : (beginEnrollmentDateTime, id) 인덱스를 따라 커서 위치부터 읽기 때문에
+     * OFFSET 처럼 앞쪽 row를 모두 읽고 버리지 않는다. List를 반환하므로 count 쿼리도 실행되지 않음
+     * 커서 조건 앞의 beginEnrollmentDateTime >= (<=) 조건은 index 범위 조건으로 사용되어 커서 이전 row를 읽지 않도록 함
+     * (OR 조건만 있으면 index를 처음부터 읽으면서 커서 이전 row를 filter로 버림)
+     */
+    List<Event> findAllByOrderByBeginEnrollmentDateTimeAscIdAsc(Pageable pageable);
+
+    @Query("select e from Event e " +
+            "where e.beginEnrollmentDateTime >= :beginEnrollmentDateTime " +
+            "and (e.beginEnrollmentDateTime > :beginEnrollmentDateTime or e.id > :id) " +
+            "order by e.beginEnrollmentDateTime asc, e.id asc")
+    List<Event> findAllAfter(@Param("beginEnrollmentDateTime") LocalDateTime beginEnrollmentDateTime,
+                             @Param("id") Integer id,
+                             Pageable pageable);
+
+    @Query("select e from Event e " +
+            "where e.beginEnrollmentDateTime <= :beginEnrollmentDateTime " +
+            "and (e.beginEnrollmentDateTime < :beginEnrollmentDateTime or e.id < :id) " +
+            "order by e.beginEnrollmentDateTime desc, e.id desc")
+    List<Event> findAllBefore(@Param("beginEnrollmentDateTime") LocalDateTime beginEnrollmentDateTime,
+                              @Param("id") Integer id,
+                              Pageable pageable);
 }
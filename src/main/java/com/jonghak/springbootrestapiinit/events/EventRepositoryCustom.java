@@ -0,0 +1,15 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import java.util.stream.Stream;
+
+public interface EventRepositoryCustom {
+
+    /**
+     * 이벤트 전체를 JDBC 커서로 조회
+     * 한번에 모든 row를 메모리에 올리지 않고 fetch size 만큼씩 읽는다. 트랜잭션 안에서 사용하고 사용 후 반드시 close 해야 한다.
+     * @param eventStatus 이벤트 상태 (null이면 전체)
+     * @param managerId 이벤트 생성자 id (null이면 전체)
+     * @return
+     */
+    Stream<Event> streamAll(EventStatus eventStatus, Integer managerId);
+}
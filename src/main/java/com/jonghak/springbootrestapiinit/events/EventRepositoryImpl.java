@@ -0,0 +1,43 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class EventRepositoryImpl implements EventRepositoryCustom {
+
+    private static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Event> streamAll(EventStatus eventStatus, Integer managerId) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = builder.createQuery(Event.class);
+        Root<Event> event = query.from(Event.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (eventStatus != null) {
+            predicates.add(builder.equal(event.get("eventStatus"), eventStatus));
+        }
+        if (managerId != null) {
+            predicates.add(builder.equal(event.get("manager").get("id"), managerId));
+        }
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(builder.asc(event.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,42 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
+
+/**
+ * 이벤트 검색 조건 (모든 조건은 optional, 값이 있는 조건만 AND로 적용)
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class EventSearchCondition {
+
+    // name 또는 description에 포함된 문자열 (대소문자 구분 없음)
+    private String keyword;
+    private EventStatus eventStatus;
+    private Boolean free;
+    private Boolean offline;
+    // basePrice 범위
+    @Min(0)
+    private Integer minPrice;
+    @Min(0)
+    private Integer maxPrice;
+    // 등록 기간이 [enrollmentFrom, enrollmentTo]와 겹치는 이벤트
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime enrollmentFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime enrollmentTo;
+    // 이벤트 기간이 [eventFrom, eventTo]와 겹치는 이벤트
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime eventFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime eventTo;
+
+}
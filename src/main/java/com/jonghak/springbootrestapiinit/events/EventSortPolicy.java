@@ -0,0 +1,77 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import com.jonghak.springbootrestapiinit.configs.AppPropertices;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 이벤트 목록 조회 정렬, 페이지 크기 정책
+ * index 순서대로 읽을 수 있는 property 하나로만 정렬하고, 같은 값의 순서가 요청마다 바뀌지 않도록 id를 마지막 정렬 조건으로 추가한다.
+ * 정렬하지 않으면 id 순서로 조회하고, 페이지 크기는 my-app.event-page-max-size 까지만 허용
+ */
+@Component
+public class EventSortPolicy {
+
+    static final String ID = "id";
+
+    // 정렬 가능한 property와 정렬에 사용하는 index (db/migration)
+    static final Map<String, String> SORTABLE_PROPERTIES = Map.of(
+            ID, "event_pkey",
+            "beginEnrollmentDateTime", "event_begin_enrollment_id_idx",
+            "beginEventDateTime", "event_begin_event_id_idx",
+            "basePrice", "event_base_price_id_idx");
+
+    private final AppPropertices appPropertices;
+
+    public EventSortPolicy(AppPropertices appPropertices) {
+        this.appPropertices = appPropertices;
+    }
+
+    /**
+     * 정렬 조건에 id를 추가하고 페이지 크기를 제한한 Pageable
+     * (index 하나로 읽을 수 없는 정렬이면 errors에 추가하고 null)
+     * @param pageable
+     * @param errors
+     * @return
+     */
+    public Pageable apply(Pageable pageable, Errors errors) {
+        List<Sort.Order> orders = new ArrayList<>(pageable.getSort().toList());
+        if (orders.isEmpty()) {
+            orders.add(Sort.Order.asc(ID));
+        }
+
+        Sort.Order first = orders.get(0);
+        if (!SORTABLE_PROPERTIES.containsKey(first.getProperty()) || first.isIgnoreCase()) {
+            errors.reject("wrongValue", "sort is Wrong : " + first.getProperty()
+                    + " (sortable : " + String.join(", ", new TreeSet<>(SORTABLE_PROPERTIES.keySet())) + ")");
+            return null;
+        }
+
+        // 두번째 정렬 조건은 같은 방향의 id만 허용 (index를 한 방향으로 읽을 수 있는 경우)
+        Sort.Order tiebreaker = new Sort.Order(first.getDirection(), ID);
+        if (orders.size() > 2 || (orders.size() == 2 && (first.getProperty().equals(ID) || !orders.get(1).equals(tiebreaker)))) {
+            errors.reject("wrongValue", "sort is Wrong : only one sort property is allowed");
+            return null;
+        }
+
+        Sort sort = first.getProperty().equals(ID) ? Sort.by(first) : Sort.by(first, tiebreaker);
+        return PageRequest.of(pageable.getPageNumber(), pageSize(pageable.getPageSize()), sort);
+    }
+
+    /**
+     * my-app.event-page-max-size 까지로 제한한 페이지 크기 (정렬이 고정된 커서 조회 등)
+     * @param size
+     * @return
+     */
+    public int pageSize(int size) {
+        return Math.min(size, appPropertices.getEventPageMaxSize());
+    }
+}
@@ -0,0 +1,86 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * 이벤트 검색 조건별 Specification
+ * 조건 값이 없으면 null을 반환해서 Specification.where/and 에서 무시되도록 함
+ * keyword는 lower(name), lower(description) LIKE 로 조회하므로 PostgreSQL에서는 pg_trgm GIN index(db/migration/postgresql)를 사용한다.
+ */
+public final class EventSpecs {
+
+    private static final char ESCAPE = '\\';
+
+    private EventSpecs() {
+    }
+
+    public static Specification<Event> search(EventSearchCondition condition) {
+        return Specification.where(keyword(condition.getKeyword()))
+                .and(eventStatus(condition.getEventStatus()))
+                .and(free(condition.getFree()))
+                .and(offline(condition.getOffline()))
+                .and(basePriceBetween(condition.getMinPrice(), condition.getMaxPrice()))
+                .and(enrollmentOverlaps(condition.getEnrollmentFrom(), condition.getEnrollmentTo()))
+                .and(eventOverlaps(condition.getEventFrom(), condition.getEventTo()));
+    }
+
+    public static Specification<Event> keyword(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(keyword.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, builder) -> builder.or(
+                builder.like(builder.lower(root.get("name")), pattern, ESCAPE),
+                builder.like(builder.lower(root.get("description")), pattern, ESCAPE));
+    }
+
+    public static Specification<Event> eventStatus(EventStatus eventStatus) {
+        return eventStatus == null ? null : (root, query, builder) -> builder.equal(root.get("eventStatus"), eventStatus);
+    }
+
+    public static Specification<Event> free(Boolean free) {
+        return free == null ? null : (root, query, builder) -> builder.equal(root.get("free"), free);
+    }
+
+    public static Specification<Event> offline(Boolean offline) {
+        return offline == null ? null : (root, query, builder) -> builder.equal(root.get("offline"), offline);
+    }
+
+    public static Specification<Event> basePriceBetween(Integer minPrice, Integer maxPrice) {
+        Specification<Event> min = minPrice == null ? null : (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("basePrice"), minPrice);
+        Specification<Event> max = maxPrice == null ? null : (root, query, builder) -> builder.lessThanOrEqualTo(root.get("basePrice"), maxPrice);
+        return Specification.where(min).and(max);
+    }
+
+    public static Specification<Event> enrollmentOverlaps(LocalDateTime from, LocalDateTime to) {
+        return overlaps("beginEnrollmentDateTime", "closeEnrollmentDateTime", from, to);
+    }
+
+    public static Specification<Event> eventOverlaps(LocalDateTime from, LocalDateTime to) {
+        return overlaps("beginEventDateTime", "endEventDateTime", from, to);
+    }
+
+    /**
+     * [begin, end] 기간이 [from, to]와 겹치는 조건 (begin <= to AND end >= from)
+     */
+    private static Specification<Event> overlaps(String begin, String end, LocalDateTime from, LocalDateTime to) {
+        Specification<Event> beginBeforeTo = to == null ? null : (root, query, builder) -> builder.lessThanOrEqualTo(root.get(begin), to);
+        Specification<Event> endAfterFrom = from == null ? null : (root, query, builder) -> builder.greaterThanOrEqualTo(root.get(end), from);
+        return Specification.where(beginBeforeTo).and(endAfterFrom);
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == ESCAPE || c == '%' || c == '_') {
+                builder.append(ESCAPE);
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
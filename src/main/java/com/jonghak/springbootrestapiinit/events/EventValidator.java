@@ -22,4 +22,21 @@ public class EventValidator {
         }
 
     }
+
+    public void validate(EventSearchCondition condition, Errors errors){
+        if(condition.getMinPrice() != null && condition.getMaxPrice() != null &&
+        condition.getMinPrice() > condition.getMaxPrice()){
+            errors.rejectValue("maxPrice", "wrongValue", "maxPrice is Wrong");
+        }
+
+        if(condition.getEnrollmentFrom() != null && condition.getEnrollmentTo() != null &&
+        condition.getEnrollmentTo().isBefore(condition.getEnrollmentFrom())){
+            errors.rejectValue("enrollmentTo", "wrongValue", "enrollmentTo is Wrong");
+        }
+
+        if(condition.getEventFrom() != null && condition.getEventTo() != null &&
+        condition.getEventTo().isBefore(condition.getEventFrom())){
+            errors.rejectValue("eventTo", "wrongValue", "eventTo is Wrong");
+        }
+    }
 }
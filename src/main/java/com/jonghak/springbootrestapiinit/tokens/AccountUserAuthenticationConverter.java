@@ -0,0 +1,70 @@
+package com.jonghak.springbootrestapiinit.tokens;
+
+import com.jonghak.springbootrestapiinit.accounts.Account;
+import com.jonghak.springbootrestapiinit.accounts.AccountAdapter;
+import com.jonghak.springbootrestapiinit.accounts.AccountRole;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.provider.token.DefaultUserAuthenticationConverter;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JWT claim <-> 사용자 인증정보(AccountAdapter) 변환
+ * - user_name : email
+ * - authorities : 권한 (ROLE_ADMIN, ROLE_USER)
+ * - account_id : Account.id
+ * token에 있는 정보만으로 Account를 만들기 때문에 @CurrentUser 조회 시 DB를 조회하지 않는다.
+ */
+public class AccountUserAuthenticationConverter extends DefaultUserAuthenticationConverter {
+
+    public static final String ACCOUNT_ID = "account_id";
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    @Override
+    public Map<String, ?> convertUserAuthentication(Authentication authentication) {
+        Map<String, Object> response = new LinkedHashMap<>(super.convertUserAuthentication(authentication));
+        if (authentication.getPrincipal() instanceof AccountAdapter) {
+            response.put(ACCOUNT_ID, ((AccountAdapter) authentication.getPrincipal()).getAccount().getId());
+        }
+        return response;
+    }
+
+    @Override
+    public Authentication extractAuthentication(Map<String, ?> map) {
+        Authentication authentication = super.extractAuthentication(map);
+        if (authentication == null || !(map.get(ACCOUNT_ID) instanceof Number)) {
+            return authentication;
+        }
+
+        Account account = Account.builder()
+                .id(((Number) map.get(ACCOUNT_ID)).intValue())
+                .email(authentication.getName())
+                .password("") // token에는 비밀번호가 없음
+                .roles(roles(authentication.getAuthorities()))
+                .build();
+        AccountAdapter principal = new AccountAdapter(account);
+        return new UsernamePasswordAuthenticationToken(principal, "N/A", principal.getAuthorities());
+    }
+
+    private static Set<AccountRole> roles(Collection<? extends GrantedAuthority> authorities) {
+        Set<AccountRole> roles = EnumSet.noneOf(AccountRole.class);
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name.startsWith(ROLE_PREFIX)) {
+                try {
+                    roles.add(AccountRole.valueOf(name.substring(ROLE_PREFIX.length())));
+                } catch (IllegalArgumentException e) {
+                    // 알 수 없는 권한은 무시
+                }
+            }
+        }
+        return roles;
+    }
+}
@@ -0,0 +1,291 @@
+package com.jonghak.springbootrestapiinit.tokens;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.jonghak.springbootrestapiinit.configs.AppPropertices;
+import com.jonghak.springbootrestapiinit.configs.TokenStoreProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.DefaultAuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * 최대 크기가 정해진 메모리 token 저장소
+ * InMemoryTokenStore와 달리
+ * - Caffeine(ConcurrentHashMap 기반)을 사용해서 token 저장 시 lock 경합이 적고
+ * - 최대 크기를 넘으면 오래 사용하지 않은 token부터 삭제하며
+ * - token 만료 시간이 지나면 background(Scheduler)에서 삭제한다.
+ * 만료 시간이 없는 token은 AppPropertices의 token 유효 시간 후 삭제한다.
+ * 크기, 삭제(eviction) 건수는 actuator metrics(cache.size, cache.evictions, cache=oauth2.access-tokens, oauth2.refresh-tokens)로 확인할 수 있다.
+ */
+public class BoundedInMemoryTokenStore implements TokenStore {
+
+    public static final String ACCESS_TOKEN_CACHE_NAME = "oauth2.access-tokens";
+
+    public static final String REFRESH_TOKEN_CACHE_NAME = "oauth2.refresh-tokens";
+
+    // access token 값 -> access token, 인증정보
+    private final Cache<String, AccessTokenEntry> accessTokens;
+
+    // refresh token 값 -> refresh token, 인증정보
+    private final Cache<String, RefreshTokenEntry> refreshTokens;
+
+    // 인증정보 key -> access token 값 (access token 삭제 시 함께 삭제)
+    private final ConcurrentMap<String, String> authenticationToAccessToken = new ConcurrentHashMap<>();
+
+    // refresh token 값 -> access token 값 (access token 삭제 시 함께 삭제)
+    private final ConcurrentMap<String, String> refreshTokenToAccessToken = new ConcurrentHashMap<>();
+
+    private final AuthenticationKeyGenerator authenticationKeyGenerator = new DefaultAuthenticationKeyGenerator();
+
+    public BoundedInMemoryTokenStore(TokenStoreProperties tokenStoreProperties,
+                                     AppPropertices appPropertices,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        long accessTokenValidity = TimeUnit.SECONDS.toNanos(appPropertices.getAccessTokenValiditySeconds());
+        long refreshTokenValidity = TimeUnit.SECONDS.toNanos(appPropertices.getRefreshTokenValiditySeconds());
+
+        this.accessTokens = Caffeine.newBuilder()
+                .maximumSize(tokenStoreProperties.getMaximumSize())
+                .expireAfter(new TokenExpiry<AccessTokenEntry>(entry -> entry.token.getExpiration(), accessTokenValidity))
+                .scheduler(Scheduler.systemScheduler())
+                // 연결 정보 삭제는 가벼운 작업이므로 별도 thread pool 없이 삭제한 thread에서 바로 실행
+                .executor(Runnable::run)
+                .removalListener(this::onAccessTokenRemoved)
+                .recordStats()
+                .build();
+        this.refreshTokens = Caffeine.newBuilder()
+                .maximumSize(tokenStoreProperties.getMaximumSize())
+                .expireAfter(new TokenExpiry<RefreshTokenEntry>(entry -> entry.token instanceof ExpiringOAuth2RefreshToken
+                        ? ((ExpiringOAuth2RefreshToken) entry.token).getExpiration()
+                        : null, refreshTokenValidity))
+                .scheduler(Scheduler.systemScheduler())
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, this.accessTokens, ACCESS_TOKEN_CACHE_NAME);
+            CaffeineCacheMetrics.monitor(registry, this.refreshTokens, REFRESH_TOKEN_CACHE_NAME);
+        });
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return readAuthentication(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        AccessTokenEntry entry = this.accessTokens.getIfPresent(token);
+        return entry == null ? null : entry.authentication;
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        String authenticationKey = this.authenticationKeyGenerator.extractKey(authentication);
+        String refreshToken = token.getRefreshToken() == null ? null : token.getRefreshToken().getValue();
+
+        // 연결 정보를 먼저 저장하고 access token을 저장 (access token이 바로 삭제되어도 연결 정보가 남지 않도록)
+        this.authenticationToAccessToken.put(authenticationKey, token.getValue());
+        if (refreshToken != null) {
+            this.refreshTokenToAccessToken.put(refreshToken, token.getValue());
+        }
+        AccessTokenEntry previous = this.accessTokens.asMap()
+                .put(token.getValue(), new AccessTokenEntry(token, authentication, authenticationKey, refreshToken));
+        if (previous != null && !previous.authenticationKey.equals(authenticationKey)) {
+            this.authenticationToAccessToken.remove(previous.authenticationKey, token.getValue());
+        }
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        AccessTokenEntry entry = this.accessTokens.getIfPresent(tokenValue);
+        return entry == null ? null : entry.token;
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        this.accessTokens.invalidate(token.getValue());
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        this.refreshTokens.put(refreshToken.getValue(), new RefreshTokenEntry(refreshToken, authentication));
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        RefreshTokenEntry entry = this.refreshTokens.getIfPresent(tokenValue);
+        return entry == null ? null : entry.token;
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        RefreshTokenEntry entry = this.refreshTokens.getIfPresent(token.getValue());
+        return entry == null ? null : entry.authentication;
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken token) {
+        this.refreshTokens.invalidate(token.getValue());
+        this.refreshTokenToAccessToken.remove(token.getValue());
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        String accessToken = this.refreshTokenToAccessToken.remove(refreshToken.getValue());
+        if (accessToken != null) {
+            this.accessTokens.invalidate(accessToken);
+        }
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        String authenticationKey = this.authenticationKeyGenerator.extractKey(authentication);
+        String tokenValue = this.authenticationToAccessToken.get(authenticationKey);
+        if (tokenValue == null) {
+            return null;
+        }
+
+        AccessTokenEntry entry = this.accessTokens.getIfPresent(tokenValue);
+        if (entry == null) {
+            return null;
+        }
+        // 같은 token의 인증정보가 바뀐 경우(권한 변경 등) 현재 인증정보로 다시 저장 (InMemoryTokenStore와 같은 동작)
+        if (!authenticationKey.equals(this.authenticationKeyGenerator.extractKey(entry.authentication))) {
+            storeAccessToken(entry.token, authentication);
+        }
+        return entry.token;
+    }
+
+    /**
+     * client, 사용자별 access token 조회
+     * token 발급/조회 시에는 사용하지 않으므로 별도 index 없이 전체 token을 확인한다.
+     */
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+        return findTokens(entry -> clientId.equals(entry.authentication.getOAuth2Request().getClientId())
+                && userName.equals(entry.authentication.getUserAuthentication() == null ? "" : entry.authentication.getName()));
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return findTokens(entry -> clientId.equals(entry.authentication.getOAuth2Request().getClientId()));
+    }
+
+    public long accessTokenCount() {
+        return this.accessTokens.estimatedSize();
+    }
+
+    public long refreshTokenCount() {
+        return this.refreshTokens.estimatedSize();
+    }
+
+    /**
+     * 대기 중인 삭제(최대 크기 초과, 만료) 작업을 바로 실행
+     */
+    public void cleanUp() {
+        this.accessTokens.cleanUp();
+        this.refreshTokens.cleanUp();
+    }
+
+    private Collection<OAuth2AccessToken> findTokens(Predicate<AccessTokenEntry> predicate) {
+        return this.accessTokens.asMap().values().stream()
+                .filter(predicate)
+                .map(entry -> entry.token)
+                .collect(Collectors.toList());
+    }
+
+    private void onAccessTokenRemoved(String tokenValue, AccessTokenEntry entry, RemovalCause cause) {
+        // 같은 token을 다시 저장한 경우(REPLACED)는 storeAccessToken에서 처리
+        if (entry == null || cause == RemovalCause.REPLACED) {
+            return;
+        }
+        this.authenticationToAccessToken.remove(entry.authenticationKey, tokenValue);
+        if (entry.refreshToken != null) {
+            this.refreshTokenToAccessToken.remove(entry.refreshToken, tokenValue);
+        }
+    }
+
+    private static class AccessTokenEntry {
+
+        private final OAuth2AccessToken token;
+
+        private final OAuth2Authentication authentication;
+
+        private final String authenticationKey;
+
+        private final String refreshToken;
+
+        AccessTokenEntry(OAuth2AccessToken token, OAuth2Authentication authentication, String authenticationKey, String refreshToken) {
+            this.token = token;
+            this.authentication = authentication;
+            this.authenticationKey = authenticationKey;
+            this.refreshToken = refreshToken;
+        }
+    }
+
+    private static class RefreshTokenEntry {
+
+        private final OAuth2RefreshToken token;
+
+        private final OAuth2Authentication authentication;
+
+        RefreshTokenEntry(OAuth2RefreshToken token, OAuth2Authentication authentication) {
+            this.token = token;
+            this.authentication = authentication;
+        }
+    }
+
+    /**
+     * token 만료 시간까지 보관 (만료 시간이 없으면 유효 시간 동안 보관)
+     */
+    private static class TokenExpiry<V> implements Expiry<String, V> {
+
+        private final Function<V, Date> expiration;
+
+        private final long defaultValidity;
+
+        TokenExpiry(Function<V, Date> expiration, long defaultValidity) {
+            this.expiration = expiration;
+            this.defaultValidity = defaultValidity;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, V value, long currentTime) {
+            Date expiresAt = this.expiration.apply(value);
+            if (expiresAt == null) {
+                return this.defaultValidity > 0 ? this.defaultValidity : Long.MAX_VALUE;
+            }
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(expiresAt.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
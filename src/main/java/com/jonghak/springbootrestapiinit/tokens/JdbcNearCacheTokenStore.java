@@ -0,0 +1,616 @@
+package com.jonghak.springbootrestapiinit.tokens;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.jonghak.springbootrestapiinit.configs.TokenStoreProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.codec.Hex;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.common.util.SerializationUtils;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.DefaultAuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * DB token 저장소 (서버 여러 대에서 같은 token 사용)
+ * - 조회 : 서버별 near cache(짧은 TTL)를 먼저 확인하고, DB에 없는 token도 잠시 보관(negative cache)해서 잘못된 token 반복 조회를 막는다.
+ *   다른 서버에서 발급한 token은 writeFlushInterval 후 DB에 저장되므로, negative cache 보관 시간은 writeFlushInterval 까지만 사용한다.
+ *   (더 길면 발급 직후 다른 서버에서 조회한 정상 token을 보관 시간 동안 거부함)
+ * - 저장 : 요청 thread에서는 near cache만 변경하고 DB 작업은 대기열에 넣어서 별도 thread에서 모아서(batch) 실행한다.
+ *   다른 서버에서는 writeFlushInterval 후 조회할 수 있다.
+ * - 삭제 : 대기열의 같은 token 저장은 버리고, 삭제만 바로 DB에 반영될 때까지 기다린다. (폐기한 token이 다른 서버에서 계속 사용되지 않도록)
+ *   삭제가 실패하면 예외가 발생하고 삭제는 대기열에서 재시도한다. 다른 서버에서 삭제한 token은 nearCacheTtl 후 반영된다.
+ * - DB 작업이 실패하면 batch의 작업을 하나씩 다시 실행해서 실패한 작업만 골라내고, 실패한 작업부터 대기열 앞에 다시 넣어서 재시도한다.
+ *   모두 실패한 경우(DB 장애 등)는 writeFlushInterval부터 writeRetryMaxInterval까지 두배씩 늘려가며 재시도하고,
+ *   writeMaxAttempts 번 실패한 작업은 로그(error)를 남기고 버린다. (저장할 수 없는 작업 하나가 이후 작업을 계속 막지 않도록)
+ * - 인증정보는 credential(비밀번호 hash 등)을 지운 후 저장한다.
+ * - 만료된 token은 cleanupInterval 마다 cleanupBatchSize 건씩 삭제한다.
+ * token 값은 저장하지 않고 SHA-256 hash를 key로 사용한다. (테이블 : db/migration/{vendor}/V2__create_oauth2_token_store.sql)
+ */
+public class JdbcNearCacheTokenStore implements TokenStore, DisposableBean {
+
+    public static final String NEAR_CACHE_NAME = "oauth2.token-near-cache";
+
+    private static final String ACCESS_TOKEN_COLUMNS = "token, authentication, refresh_token_hash";
+
+    private static final Log logger = LogFactory.getLog(JdbcNearCacheTokenStore.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TokenStoreProperties.Jdbc properties;
+
+    private final AuthenticationKeyGenerator authenticationKeyGenerator = new DefaultAuthenticationKeyGenerator();
+
+    // access token hash -> access token, 인증정보 (DB에 없으면 NOT_FOUND)
+    private final Cache<String, Object> accessTokens;
+
+    // refresh token hash -> refresh token, 인증정보 (DB에 없으면 NOT_FOUND)
+    private final Cache<String, Object> refreshTokens;
+
+    // 인증정보 key -> access token 값 (같은 사용자가 연속으로 token을 발급받는 경우 DB 저장 전에도 같은 token 사용)
+    private final Cache<String, String> authenticationToAccessToken;
+
+    // 실패한 작업은 순서를 유지하도록 앞에 다시 넣음
+    private final BlockingDeque<Write> writes = new LinkedBlockingDeque<>();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    // DB 작업 실패 후 다음 재시도 시각(System.nanoTime)과 대기 시간 (executor thread에서만 사용)
+    private long retryAtNanos;
+
+    private long retryDelayNanos;
+
+    // DB 저장/삭제, 만료 token 삭제를 순서대로 실행하는 thread
+    private final ScheduledExecutorService executor =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("token-store-"));
+
+    public JdbcNearCacheTokenStore(JdbcTemplate jdbcTemplate,
+                                   TokenStoreProperties tokenStoreProperties,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = tokenStoreProperties.getJdbc();
+        this.accessTokens = nearCache();
+        this.refreshTokens = nearCache();
+        this.authenticationToAccessToken = Caffeine.newBuilder()
+                .maximumSize(this.properties.getNearCacheMaximumSize())
+                .expireAfterWrite(this.properties.getNearCacheTtl())
+                .build();
+
+        long flushInterval = this.properties.getWriteFlushInterval().toMillis();
+        this.executor.scheduleWithFixedDelay(this::flushWrites, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        long cleanupInterval = this.properties.getCleanupInterval().toMillis();
+        this.executor.scheduleWithFixedDelay(this::deleteExpiredTokens, cleanupInterval, cleanupInterval, TimeUnit.MILLISECONDS);
+
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, this.accessTokens, NEAR_CACHE_NAME);
+            Gauge.builder("oauth2.token-store.pending-writes", this.writes, BlockingQueue::size)
+                    .description("DB에 저장 대기 중인 token 저장/삭제 수")
+                    .register(registry);
+        });
+    }
+
+    private Cache<String, Object> nearCache() {
+        long ttl = this.properties.getNearCacheTtl().toNanos();
+        long negativeTtl = Math.min(this.properties.getNegativeCacheTtl().toNanos(), this.properties.getWriteFlushInterval().toNanos());
+        return Caffeine.newBuilder()
+                .maximumSize(this.properties.getNearCacheMaximumSize())
+                .expireAfter(new Expiry<String, Object>() {
+                    @Override
+                    public long expireAfterCreate(String key, Object value, long currentTime) {
+                        return value == NOT_FOUND ? negativeTtl : ttl;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Object value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return readAuthentication(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        AccessTokenEntry entry = readAccessTokenEntry(hash(token));
+        return entry == null ? null : entry.authentication;
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        String tokenHash = hash(token.getValue());
+        String authenticationKey = this.authenticationKeyGenerator.extractKey(authentication);
+        String refreshTokenHash = token.getRefreshToken() == null ? null : hash(token.getRefreshToken().getValue());
+        authentication.eraseCredentials();
+
+        this.accessTokens.put(tokenHash, new AccessTokenEntry(token, authentication, refreshTokenHash));
+        this.authenticationToAccessToken.put(authenticationKey, token.getValue());
+        enqueue(new Write(WriteType.STORE_ACCESS_TOKEN, tokenHash,
+                tokenHash,
+                SerializationUtils.serialize(token),
+                authenticationKey,
+                SerializationUtils.serialize(authentication),
+                authentication.getOAuth2Request().getClientId(),
+                authentication.isClientOnly() ? null : authentication.getName(),
+                refreshTokenHash,
+                timestamp(token.getExpiration())));
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        AccessTokenEntry entry = readAccessTokenEntry(hash(tokenValue));
+        return entry == null ? null : entry.token;
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        String tokenHash = hash(token.getValue());
+        this.accessTokens.put(tokenHash, NOT_FOUND);
+        writeThrough(new Write(WriteType.REMOVE_ACCESS_TOKEN, tokenHash, tokenHash),
+                write -> write.type == WriteType.STORE_ACCESS_TOKEN && write.key.equals(tokenHash));
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        String tokenHash = hash(refreshToken.getValue());
+        Date expiration = refreshToken instanceof ExpiringOAuth2RefreshToken
+                ? ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration()
+                : null;
+        authentication.eraseCredentials();
+
+        this.refreshTokens.put(tokenHash, new RefreshTokenEntry(refreshToken, authentication));
+        enqueue(new Write(WriteType.STORE_REFRESH_TOKEN, tokenHash,
+                tokenHash,
+                SerializationUtils.serialize(refreshToken),
+                SerializationUtils.serialize(authentication),
+                timestamp(expiration)));
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        RefreshTokenEntry entry = readRefreshTokenEntry(hash(tokenValue));
+        return entry == null ? null : entry.token;
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        RefreshTokenEntry entry = readRefreshTokenEntry(hash(token.getValue()));
+        return entry == null ? null : entry.authentication;
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken token) {
+        String tokenHash = hash(token.getValue());
+        this.refreshTokens.put(tokenHash, NOT_FOUND);
+        writeThrough(new Write(WriteType.REMOVE_REFRESH_TOKEN, tokenHash, tokenHash),
+                write -> write.type == WriteType.STORE_REFRESH_TOKEN && write.key.equals(tokenHash));
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        String refreshTokenHash = hash(refreshToken.getValue());
+        this.accessTokens.asMap().replaceAll((tokenHash, entry) ->
+                entry instanceof AccessTokenEntry && refreshTokenHash.equals(((AccessTokenEntry) entry).refreshTokenHash)
+                        ? NOT_FOUND
+                        : entry);
+        writeThrough(new Write(WriteType.REMOVE_ACCESS_TOKEN_USING_REFRESH_TOKEN, refreshTokenHash, refreshTokenHash),
+                write -> write.type == WriteType.STORE_ACCESS_TOKEN && refreshTokenHash.equals(write.values[6]));
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        String authenticationKey = this.authenticationKeyGenerator.extractKey(authentication);
+        AccessTokenEntry entry = null;
+        String tokenValue = this.authenticationToAccessToken.getIfPresent(authenticationKey);
+        if (tokenValue != null) {
+            entry = readAccessTokenEntry(hash(tokenValue));
+        }
+        if (entry == null) {
+            List<AccessTokenEntry> entries = this.jdbcTemplate.query(
+                    "SELECT " + ACCESS_TOKEN_COLUMNS + " FROM oauth2_access_token WHERE authentication_key = ?"
+                            + " ORDER BY expires_at DESC FETCH FIRST 1 ROWS ONLY",
+                    (rs, rowNum) -> new AccessTokenEntry(
+                            SerializationUtils.deserialize(rs.getBytes(1)),
+                            SerializationUtils.deserialize(rs.getBytes(2)),
+                            rs.getString(3)),
+                    authenticationKey);
+            if (entries.isEmpty()) {
+                return null;
+            }
+            entry = entries.get(0);
+        }
+
+        // 같은 token의 인증정보가 바뀐 경우(권한 변경 등) 현재 인증정보로 다시 저장 (InMemoryTokenStore와 같은 동작)
+        if (!authenticationKey.equals(this.authenticationKeyGenerator.extractKey(entry.authentication))) {
+            storeAccessToken(entry.token, authentication);
+        }
+        return entry.token;
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+        return this.jdbcTemplate.query("SELECT token FROM oauth2_access_token WHERE client_id = ? AND user_name = ?",
+                (rs, rowNum) -> SerializationUtils.<OAuth2AccessToken>deserialize(rs.getBytes(1)),
+                clientId, userName);
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return this.jdbcTemplate.query("SELECT token FROM oauth2_access_token WHERE client_id = ?",
+                (rs, rowNum) -> SerializationUtils.<OAuth2AccessToken>deserialize(rs.getBytes(1)),
+                clientId);
+    }
+
+    /**
+     * 대기 중인 token 저장/삭제를 DB에 바로 반영하고 완료될 때까지 기다림 (테스트, 서버 종료 시 사용)
+     * 실패하면 예외가 발생하고, 반영하지 못한 작업은 대기열에 남아서 재시도한다.
+     */
+    public void flush() {
+        await(this.executor.submit(this::writePending));
+    }
+
+    private void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing tokens", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 만료된 token 삭제
+     * @return 삭제한 access token, refresh token 수
+     */
+    public int deleteExpired() {
+        try {
+            return this.executor.submit(this::deleteExpiredTokens).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // 종료 전에 대기 중인 token 저장/삭제 반영
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Failed to write " + this.writes.size() + " pending tokens on shutdown", e);
+        }
+        this.executor.shutdown();
+    }
+
+    private AccessTokenEntry readAccessTokenEntry(String tokenHash) {
+        return read(this.accessTokens, tokenHash, key -> {
+            List<AccessTokenEntry> entries = this.jdbcTemplate.query(
+                    "SELECT " + ACCESS_TOKEN_COLUMNS + " FROM oauth2_access_token WHERE token_hash = ?",
+                    (rs, rowNum) -> new AccessTokenEntry(
+                            SerializationUtils.deserialize(rs.getBytes(1)),
+                            SerializationUtils.deserialize(rs.getBytes(2)),
+                            rs.getString(3)),
+                    key);
+            return entries.isEmpty() ? null : entries.get(0);
+        });
+    }
+
+    private RefreshTokenEntry readRefreshTokenEntry(String tokenHash) {
+        return read(this.refreshTokens, tokenHash, key -> {
+            List<RefreshTokenEntry> entries = this.jdbcTemplate.query(
+                    "SELECT token, authentication FROM oauth2_refresh_token WHERE token_hash = ?",
+                    (rs, rowNum) -> new RefreshTokenEntry(
+                            SerializationUtils.deserialize(rs.getBytes(1)),
+                            SerializationUtils.deserialize(rs.getBytes(2))),
+                    key);
+            return entries.isEmpty() ? null : entries.get(0);
+        });
+    }
+
+    /**
+     * near cache 조회, 없으면 DB 조회 (같은 token을 동시에 조회해도 DB 조회는 한번만 실행)
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> V read(Cache<String, Object> cache, String key, Function<String, V> loader) {
+        Object value = cache.get(key, k -> {
+            V loaded = loader.apply(k);
+            return loaded == null ? NOT_FOUND : loaded;
+        });
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    private void enqueue(Write write) {
+        this.writes.add(write);
+        // batch 크기만큼 쌓이면 주기를 기다리지 않고 바로 저장
+        if (this.writes.size() >= this.properties.getWriteBatchSize() && this.flushScheduled.compareAndSet(false, true)) {
+            this.executor.execute(this::flushWrites);
+        }
+    }
+
+    /**
+     * 삭제는 DB에 반영될 때까지 기다림
+     * 대기열의 다른 작업은 실행하지 않으므로 다른 작업의 실패와 재시도 대기에 영향받지 않는다.
+     * 삭제 전에 저장하던 같은 token은 삭제 후 다시 저장되지 않도록 대기열에서 버림 (대기열은 executor thread에서만 실행하므로 실행 중인 저장은 없음)
+     * 실패하면 예외가 발생하고, 삭제는 대기열에 넣어서 재시도한다.
+     * @param write 삭제
+     * @param superseded 버릴 저장
+     */
+    private void writeThrough(Write write, Predicate<Write> superseded) {
+        await(this.executor.submit(() -> {
+            this.writes.removeIf(superseded);
+            try {
+                execute(write.type, Map.of(write.key, write.values));
+            } catch (RuntimeException e) {
+                write.attempts++;
+                this.writes.add(write);
+                throw e;
+            }
+        }));
+    }
+
+    /**
+     * 주기적인 저장 (실패 후 재시도 대기 중이면 실행하지 않음)
+     */
+    private void flushWrites() {
+        this.flushScheduled.set(false);
+        if (this.retryDelayNanos > 0 && System.nanoTime() - this.retryAtNanos < 0) {
+            return;
+        }
+        try {
+            writePending();
+        } catch (RuntimeException e) {
+            logger.error("Failed to write tokens, retry after " + TimeUnit.NANOSECONDS.toMillis(this.retryDelayNanos) + "ms", e);
+        }
+    }
+
+    /**
+     * 대기열의 저장/삭제를 순서대로 실행
+     * 연속된 같은 종류의 작업은 batch 하나로 실행 (같은 hash는 마지막 작업만 실행, 저장은 같은 hash 삭제 후 입력)
+     * 실패하면 실패한 작업과 아직 실행하지 않은 작업을 순서대로 대기열 앞에 다시 넣음
+     */
+    private void writePending() {
+        List<Write> batch = new ArrayList<>();
+        while (this.writes.drainTo(batch, this.properties.getWriteBatchSize()) > 0) {
+            int start = 0;
+            while (start < batch.size()) {
+                WriteType type = batch.get(start).type;
+                int end = start;
+                Map<String, Write> group = new LinkedHashMap<>();
+                while (end < batch.size() && batch.get(end).type == type) {
+                    group.remove(batch.get(end).key);
+                    group.put(batch.get(end).key, batch.get(end));
+                    end++;
+                }
+                List<Write> failed = new ArrayList<>();
+                RuntimeException failure = executeGroup(type, group, failed);
+                if (failure != null) {
+                    retry(failed, batch.subList(end, batch.size()), failure);
+                    if (failed.size() == group.size()) {
+                        backOff();
+                    } else {
+                        // 일부만 실패(저장할 수 없는 작업)한 경우는 다음 주기에 바로 재시도
+                        this.retryDelayNanos = 0;
+                    }
+                    throw failure;
+                }
+                start = end;
+            }
+            batch.clear();
+        }
+        this.retryDelayNanos = 0;
+    }
+
+    /**
+     * 같은 종류의 작업을 batch 하나로 실행하고, 실패하면 하나씩 다시 실행해서 실패한 작업만 failed에 추가
+     * @return 마지막 실패 (모두 성공하면 null)
+     */
+    private RuntimeException executeGroup(WriteType type, Map<String, Write> group, List<Write> failed) {
+        Map<String, Object[]> values = new LinkedHashMap<>();
+        group.forEach((key, write) -> values.put(key, write.values));
+        try {
+            execute(type, values);
+            return null;
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                failed.addAll(group.values());
+                return e;
+            }
+        }
+
+        RuntimeException failure = null;
+        for (Write write : group.values()) {
+            try {
+                execute(type, Map.of(write.key, write.values));
+            } catch (RuntimeException e) {
+                failed.add(write);
+                failure = e;
+            }
+        }
+        return failure;
+    }
+
+    /**
+     * 실패한 작업, 실행하지 않은 작업 순서로 대기열 앞에 다시 넣음 (writeMaxAttempts 번 실패한 작업은 로그를 남기고 버림)
+     */
+    private void retry(List<Write> failed, List<Write> remaining, RuntimeException failure) {
+        List<Write> retries = new ArrayList<>();
+        for (Write write : failed) {
+            if (++write.attempts < this.properties.getWriteMaxAttempts()) {
+                retries.add(write);
+            } else {
+                logger.error("Dropped token write after " + write.attempts + " attempts : " + write.type + " " + write.key, failure);
+            }
+        }
+        retries.addAll(remaining);
+        for (int i = retries.size() - 1; i >= 0; i--) {
+            this.writes.addFirst(retries.get(i));
+        }
+    }
+
+    private void execute(WriteType type, Map<String, Object[]> values) {
+        List<Object[]> keys = new ArrayList<>(values.size());
+        values.keySet().forEach(key -> keys.add(new Object[]{key}));
+        this.jdbcTemplate.batchUpdate(type.deleteSql, keys);
+        if (type.insertSql != null) {
+            this.jdbcTemplate.batchUpdate(type.insertSql, new ArrayList<>(values.values()));
+        }
+    }
+
+    private void backOff() {
+        long minDelay = this.properties.getWriteFlushInterval().toNanos();
+        long maxDelay = Math.max(minDelay, this.properties.getWriteRetryMaxInterval().toNanos());
+        this.retryDelayNanos = this.retryDelayNanos == 0 ? minDelay : Math.min(maxDelay, this.retryDelayNanos * 2);
+        this.retryAtNanos = System.nanoTime() + this.retryDelayNanos;
+    }
+
+    private int deleteExpiredTokens() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int deleted = 0;
+        try {
+            for (String table : new String[]{"oauth2_access_token", "oauth2_refresh_token"}) {
+                int count;
+                do {
+                    count = this.jdbcTemplate.update("DELETE FROM " + table + " WHERE token_hash IN ("
+                            + "SELECT token_hash FROM " + table + " WHERE expires_at < ? FETCH FIRST ? ROWS ONLY)",
+                            now, this.properties.getCleanupBatchSize());
+                    deleted += count;
+                } while (count >= this.properties.getCleanupBatchSize());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to delete expired tokens", e);
+        }
+        return deleted;
+    }
+
+    private static Timestamp timestamp(Date date) {
+        return date == null ? null : new Timestamp(date.getTime());
+    }
+
+    private static String hash(String tokenValue) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return new String(Hex.encode(digest.digest(tokenValue.getBytes(StandardCharsets.UTF_8))));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // DB에 없는 token (negative cache)
+    private static final Object NOT_FOUND = new Object();
+
+    private enum WriteType {
+        STORE_ACCESS_TOKEN("DELETE FROM oauth2_access_token WHERE token_hash = ?",
+                "INSERT INTO oauth2_access_token (token_hash, token, authentication_key, authentication, client_id, user_name, refresh_token_hash, expires_at)"
+                        + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)"),
+        REMOVE_ACCESS_TOKEN("DELETE FROM oauth2_access_token WHERE token_hash = ?", null),
+        REMOVE_ACCESS_TOKEN_USING_REFRESH_TOKEN("DELETE FROM oauth2_access_token WHERE refresh_token_hash = ?", null),
+        STORE_REFRESH_TOKEN("DELETE FROM oauth2_refresh_token WHERE token_hash = ?",
+                "INSERT INTO oauth2_refresh_token (token_hash, token, authentication, expires_at) VALUES (?, ?, ?, ?)"),
+        REMOVE_REFRESH_TOKEN("DELETE FROM oauth2_refresh_token WHERE token_hash = ?", null);
+
+        private final String deleteSql;
+
+        private final String insertSql;
+
+        WriteType(String deleteSql, String insertSql) {
+            this.deleteSql = deleteSql;
+            this.insertSql = insertSql;
+        }
+    }
+
+    private static class Write {
+
+        private final WriteType type;
+
+        private final String key;
+
+        private final Object[] values;
+
+        // 실패한 횟수 (executor thread에서만 변경)
+        private int attempts;
+
+        Write(WriteType type, String key, Object... values) {
+            this.type = type;
+            this.key = key;
+            this.values = values;
+        }
+    }
+
+    private static class AccessTokenEntry {
+
+        private final OAuth2AccessToken token;
+
+        private final OAuth2Authentication authentication;
+
+        private final String refreshTokenHash;
+
+        AccessTokenEntry(OAuth2AccessToken token, OAuth2Authentication authentication, String refreshTokenHash) {
+            this.token = token;
+            this.authentication = authentication;
+            this.refreshTokenHash = refreshTokenHash;
+        }
+    }
+
+    private static class RefreshTokenEntry {
+
+        private final OAuth2RefreshToken token;
+
+        private final OAuth2Authentication authentication;
+
+        RefreshTokenEntry(OAuth2RefreshToken token, OAuth2Authentication authentication) {
+            this.token = token;
+            this.authentication = authentication;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.jonghak.springbootrestapiinit.tokens;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.jonghak.springbootrestapiinit.configs.TokenStoreProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.common.util.JsonParser;
+import org.springframework.security.oauth2.common.util.JsonParserFactory;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 폐기(revoke)할 수 있는 refresh token을 지원하는 JWT token 저장소
+ * access token은 저장하지 않고 서명만 검증한다.
+ * 폐기한 refresh token은 jti(token id)를 token 만료 시간까지 보관하고(크기로 삭제하지 않음), 보관 중인 token의 refresh 요청은 거부한다.
+ * 보관 목록이 가득 차면(my-app.token-store.maximum-size) 폐기를 기록할 수 없으므로 refresh 요청을 실패시킨다.
+ * 폐기 목록은 서버별로 보관하므로 한 서버에서 사용한 refresh token을 다른 서버에서 다시 사용할 수 있다. (서버 한 대에서만 사용)
+ */
+public class RevocableJwtTokenStore extends JwtTokenStore {
+
+    public static final String REVOKED_REFRESH_TOKEN_CACHE_NAME = "oauth2.revoked-refresh-tokens";
+
+    private final JsonParser jsonParser = JsonParserFactory.create();
+
+    // 폐기한 refresh token jti -> 만료 시간(ms)
+    private final Cache<String, Long> revokedRefreshTokens;
+
+    private final long maximumSize;
+
+    public RevocableJwtTokenStore(JwtAccessTokenConverter accessTokenConverter,
+                                  TokenStoreProperties tokenStoreProperties,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        super(accessTokenConverter);
+        this.maximumSize = tokenStoreProperties.getMaximumSize();
+        // 크기로 삭제하면 폐기한 token을 다시 사용할 수 있게 되므로 만료 시간으로만 삭제
+        this.revokedRefreshTokens = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(String key, Long expiresAt, long currentTime) {
+                        return Math.max(0, TimeUnit.MILLISECONDS.toNanos(expiresAt - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Long expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Long expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats()
+                .build();
+
+        meterRegistry.ifAvailable(registry ->
+                CaffeineCacheMetrics.monitor(registry, this.revokedRefreshTokens, REVOKED_REFRESH_TOKEN_CACHE_NAME));
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        OAuth2RefreshToken refreshToken = super.readRefreshToken(tokenValue);
+        if (refreshToken == null || isRevoked(tokenValue)) {
+            return null;
+        }
+        return refreshToken;
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        if (isRevoked(token.getValue())) {
+            return null;
+        }
+        return super.readAuthenticationForRefreshToken(token);
+    }
+
+    /**
+     * refresh token으로 access token을 재발급한 경우(DefaultTokenServices.reuseRefreshToken = false) 또는 로그아웃 시 호출
+     * @param token
+     */
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken token) {
+        revokeRefreshToken(token.getValue());
+        super.removeRefreshToken(token);
+    }
+
+    /**
+     * refresh token 폐기
+     * 이미 만료된 token은 보관하지 않는다.
+     * @param tokenValue refresh token (JWT)
+     * @throws IllegalStateException 폐기 목록이 가득 찬 경우 (refresh 요청 실패)
+     */
+    public void revokeRefreshToken(String tokenValue) {
+        Map<String, Object> claims = claims(tokenValue);
+        Object jti = claims.get(JwtAccessTokenConverter.TOKEN_ID);
+        Object exp = claims.get(JwtAccessTokenConverter.EXP);
+        if (jti == null) {
+            return;
+        }
+        long expiresAt = exp instanceof Number
+                ? TimeUnit.SECONDS.toMillis(((Number) exp).longValue())
+                : Long.MAX_VALUE;
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        if (this.revokedRefreshTokens.estimatedSize() >= this.maximumSize) {
+            // 만료된 token을 먼저 삭제한 후에도 가득 차 있으면 폐기를 기록하지 못한 token이 다시 사용되지 않도록 실패
+            this.revokedRefreshTokens.cleanUp();
+            if (this.revokedRefreshTokens.estimatedSize() >= this.maximumSize) {
+                throw new IllegalStateException("Revoked refresh token list is full (" + this.maximumSize + ")");
+            }
+        }
+        this.revokedRefreshTokens.put(jti.toString(), expiresAt);
+    }
+
+    public boolean isRevoked(String tokenValue) {
+        Object jti = claims(tokenValue).get(JwtAccessTokenConverter.TOKEN_ID);
+        return jti != null && this.revokedRefreshTokens.getIfPresent(jti.toString()) != null;
+    }
+
+    public long revokedRefreshTokenCount() {
+        return this.revokedRefreshTokens.estimatedSize();
+    }
+
+    /**
+     * 서명 검증 없이 claim만 조회 (서명은 JwtTokenStore에서 검증)
+     */
+    private Map<String, Object> claims(String tokenValue) {
+        return this.jsonParser.parseMap(JwtHelper.decode(tokenValue).getClaims());
+    }
+}
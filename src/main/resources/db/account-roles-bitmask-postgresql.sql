@@ -0,0 +1,17 @@
+-- Account.roles 저장 방식 변경 : account_roles 테이블(@ElementCollection) -> account.roles 컬럼(smallint bitmask)
+-- 권한별 bit (AccountRole.mask) : ADMIN = 1, USER = 2
+-- Flyway migration(db/migration/postgresql)으로 만든 DB에는 필요 없음. Flyway 도입 전의 기존 DB는 새 버전 배포 전에 한번 실행
+BEGIN;
+
+ALTER TABLE account ADD COLUMN IF NOT EXISTS roles SMALLINT NOT NULL DEFAULT 0;
+
+UPDATE account a
+SET roles = COALESCE((SELECT bit_or(CASE r.roles WHEN 'ADMIN' THEN 1 WHEN 'USER' THEN 2 ELSE 0 END)
+                      FROM account_roles r
+                      WHERE r.account_id = a.id), 0);
+
+ALTER TABLE account ALTER COLUMN roles DROP DEFAULT;
+
+DROP TABLE account_roles;
+
+COMMIT;
@@ -0,0 +1,41 @@
+-- 계정, 이벤트 테이블 (테스트, 벤치마크용 H2)
+-- trigram index가 없으므로 keyword 외 조건에 대한 index만 생성
+
+CREATE SEQUENCE hibernate_sequence START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE event_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE account (
+    id       INTEGER NOT NULL,
+    email    VARCHAR(255),
+    password VARCHAR(255),
+    roles    SMALLINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT account_email_key UNIQUE (email)
+);
+
+CREATE TABLE event (
+    id                         INTEGER      NOT NULL,
+    name                       VARCHAR(255),
+    description                VARCHAR(255),
+    begin_enrollment_date_time TIMESTAMP,
+    close_enrollment_date_time TIMESTAMP,
+    begin_event_date_time      TIMESTAMP,
+    end_event_date_time        TIMESTAMP,
+    location                   VARCHAR(255),
+    base_price                 INTEGER      NOT NULL,
+    max_price                  INTEGER      NOT NULL,
+    limit_of_enrollment        INTEGER      NOT NULL,
+    offline                    BOOLEAN      NOT NULL,
+    free                       BOOLEAN      NOT NULL,
+    event_status               VARCHAR(255),
+    manager_id                 INTEGER,
+    version                    INTEGER,
+    PRIMARY KEY (id),
+    CONSTRAINT event_manager_id_fkey FOREIGN KEY (manager_id) REFERENCES account (id)
+);
+
+CREATE INDEX event_event_status_idx ON event (event_status);
+CREATE INDEX event_base_price_idx ON event (base_price);
+CREATE INDEX event_enrollment_idx ON event (begin_enrollment_date_time, close_enrollment_date_time);
+CREATE INDEX event_event_date_idx ON event (begin_event_date_time, end_event_date_time);
+CREATE INDEX event_begin_enrollment_id_idx ON event (begin_enrollment_date_time, id);
@@ -0,0 +1,24 @@
+-- OAuth2 token 저장소 (my-app.token-store.type=jdbc)
+-- token 값 대신 SHA-256 hash를 key로 사용
+CREATE TABLE oauth2_access_token (
+    token_hash         VARCHAR(64)  PRIMARY KEY,
+    token              VARBINARY    NOT NULL,
+    authentication_key VARCHAR(64)  NOT NULL,
+    authentication     VARBINARY    NOT NULL,
+    client_id          VARCHAR(256) NOT NULL,
+    user_name          VARCHAR(256),
+    refresh_token_hash VARCHAR(64),
+    expires_at         TIMESTAMP
+);
+CREATE INDEX oauth2_access_token_authentication_key_idx ON oauth2_access_token (authentication_key);
+CREATE INDEX oauth2_access_token_refresh_token_hash_idx ON oauth2_access_token (refresh_token_hash);
+CREATE INDEX oauth2_access_token_client_user_idx ON oauth2_access_token (client_id, user_name);
+CREATE INDEX oauth2_access_token_expires_at_idx ON oauth2_access_token (expires_at);
+
+CREATE TABLE oauth2_refresh_token (
+    token_hash     VARCHAR(64) PRIMARY KEY,
+    token          VARBINARY   NOT NULL,
+    authentication VARBINARY   NOT NULL,
+    expires_at     TIMESTAMP
+);
+CREATE INDEX oauth2_refresh_token_expires_at_idx ON oauth2_refresh_token (expires_at);
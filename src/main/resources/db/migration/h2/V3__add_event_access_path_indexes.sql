@@ -0,0 +1,9 @@
+-- 이벤트 조회 조건별 index (H2는 partial index가 없으므로 free, offline을 index 앞에 추가)
+
+CREATE INDEX event_manager_id_idx ON event (manager_id);
+
+CREATE INDEX event_event_status_begin_event_idx ON event (event_status, begin_event_date_time);
+DROP INDEX event_event_status_idx;
+
+CREATE INDEX event_free_begin_enrollment_id_idx ON event (free, begin_enrollment_date_time, id);
+CREATE INDEX event_offline_begin_enrollment_id_idx ON event (offline, begin_enrollment_date_time, id);
@@ -0,0 +1,10 @@
+-- 이벤트 목록 정렬(EventSortPolicy) : 정렬 property + id 순서 index
+-- 정렬하지 않거나 id로 정렬 : event_pkey, beginEnrollmentDateTime : event_begin_enrollment_id_idx (V1)
+
+-- 가격 정렬 (가격 조건 검색은 이 index의 앞부분 사용)
+CREATE INDEX event_base_price_id_idx ON event (base_price, id);
+DROP INDEX event_base_price_idx;
+
+-- 이벤트 시작일 정렬 (기간 조건 검색의 begin_event_date_time <= ? 도 사용, end_event_date_time은 행에서 확인)
+CREATE INDEX event_begin_event_id_idx ON event (begin_event_date_time, id);
+DROP INDEX event_event_date_idx;
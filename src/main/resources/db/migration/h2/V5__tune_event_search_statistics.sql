@@ -0,0 +1,2 @@
+-- 이벤트 검색 통계 설정 (PostgreSQL trigram index만 해당, H2는 변경 없음)
+-- migration version을 PostgreSQL과 맞추기 위한 빈 migration
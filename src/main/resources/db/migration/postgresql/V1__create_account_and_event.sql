@@ -0,0 +1,51 @@
+-- 계정, 이벤트 테이블 (Hibernate는 ddl-auto=validate로 엔티티와 일치하는지만 확인)
+
+-- Account id (@GeneratedValue)
+CREATE SEQUENCE hibernate_sequence START 1 INCREMENT 1;
+-- Event id : allocationSize(50)만큼 미리 할당
+CREATE SEQUENCE event_seq START 1 INCREMENT 50;
+
+CREATE TABLE account (
+    id       INT4 NOT NULL,
+    email    VARCHAR(255),
+    password VARCHAR(255),
+    -- 권한별 bit를 더한 값 (ADMIN = 1, USER = 2)
+    roles    INT2 NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT account_email_key UNIQUE (email)
+);
+
+CREATE TABLE event (
+    id                         INT4         NOT NULL,
+    name                       VARCHAR(255),
+    description                VARCHAR(255),
+    begin_enrollment_date_time TIMESTAMP,
+    close_enrollment_date_time TIMESTAMP,
+    begin_event_date_time      TIMESTAMP,
+    end_event_date_time        TIMESTAMP,
+    location                   VARCHAR(255),
+    base_price                 INT4         NOT NULL,
+    max_price                  INT4         NOT NULL,
+    limit_of_enrollment        INT4         NOT NULL,
+    offline                    BOOLEAN      NOT NULL,
+    free                       BOOLEAN      NOT NULL,
+    event_status               VARCHAR(255),
+    manager_id                 INT4,
+    version                    INT4,
+    PRIMARY KEY (id),
+    CONSTRAINT event_manager_id_fkey FOREIGN KEY (manager_id) REFERENCES account (id)
+);
+
+-- 이벤트 검색 : lower(name), lower(description) LIKE '%keyword%' 에 사용하는 trigram index
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX event_name_trgm_idx ON event USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX event_description_trgm_idx ON event USING gin (lower(description) gin_trgm_ops);
+
+-- 이벤트 검색 : 상태, 가격, 기간 조건
+CREATE INDEX event_event_status_idx ON event (event_status);
+CREATE INDEX event_base_price_idx ON event (base_price);
+CREATE INDEX event_enrollment_idx ON event (begin_enrollment_date_time, close_enrollment_date_time);
+CREATE INDEX event_event_date_idx ON event (begin_event_date_time, end_event_date_time);
+
+-- 이벤트 커서 조회 : (beginEnrollmentDateTime, id) 순서
+CREATE INDEX event_begin_enrollment_id_idx ON event (begin_enrollment_date_time, id);
@@ -0,0 +1,12 @@
+-- 이벤트 조회 조건별 index
+
+-- 생성자별 이벤트 (내보내기 managerId 조건, account 삭제 시 FK 확인)
+CREATE INDEX event_manager_id_idx ON event (manager_id);
+
+-- 상태 + 이벤트 기간 조건 (event_status 단독 index는 이 index의 앞부분으로 대체)
+CREATE INDEX event_event_status_begin_event_idx ON event (event_status, begin_event_date_time);
+DROP INDEX event_event_status_idx;
+
+-- 무료/오프라인 이벤트만 조회하는 경우 : 해당 이벤트만 포함하는 partial index (커서 조회와 같은 순서)
+CREATE INDEX event_free_begin_enrollment_id_idx ON event (begin_enrollment_date_time, id) WHERE free;
+CREATE INDEX event_offline_begin_enrollment_id_idx ON event (begin_enrollment_date_time, id) WHERE offline;
@@ -0,0 +1,5 @@
+-- 이벤트 검색 : lower(name), lower(description) LIKE '%keyword%' 의 예상 건수가 정확하도록 통계 표본 증가 (기본 100 -> 1000)
+-- 표본이 작으면 검색어와 맞는 값이 histogram에 우연히 포함되는지에 따라 예상 건수가 크게 바뀌고(ANALYZE마다 다름),
+-- 예상 건수가 많으면 trigram index 대신 정렬 index(event_pkey 등) 순서로 전체를 읽으면서 거르는 실행 계획을 선택함
+ALTER INDEX event_name_trgm_idx ALTER COLUMN 1 SET STATISTICS 1000;
+ALTER INDEX event_description_trgm_idx ALTER COLUMN 1 SET STATISTICS 1000;
@@ -0,0 +1,3 @@
+-- 이벤트 커서 조회 : 커서(beginEnrollmentDateTime, id)와 정렬 순서가 NULL 없이 정해지도록 NOT NULL 제약 추가
+-- 이벤트 생성/수정(EventDto)은 이미 @NotNull로 검증하므로, NULL인 row는 API 밖에서 추가된 경우에만 있음 (있으면 값을 채운 후 migration)
+ALTER TABLE event ALTER COLUMN begin_enrollment_date_time SET NOT NULL;
@@ -0,0 +1,142 @@
+package com.jonghak.springbootrestapiinit;
+
+import com.jonghak.springbootrestapiinit.accounts.AccountRepository;
+import com.jonghak.springbootrestapiinit.configs.AppConfig;
+import com.jonghak.springbootrestapiinit.configs.AppPropertices;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.actuate.startup.StartupEndpoint;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.StartupStep;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 서버 시작 시간 테스트
+ * 기본 계정 추가(비밀번호 hash)를 별도 thread에서 실행하므로 시작 시간에 포함되지 않음
+ */
+class StartupTimeTest {
+
+    // 서버 시작 허용 시간 (테스트 환경의 H2 메모리 DB 기준, 여유를 둔 값)
+    private static final Duration BOOT_BUDGET = Duration.ofSeconds(20);
+
+    // 시작 단계 보고서에 포함할 단계 수
+    private static final int REPORT_SIZE = 30;
+
+    // 빌드 결과에 남기는 시작 단계 보고서 (오래 걸린 순서)
+    private static final Path REPORT = Paths.get("target", "startup-report.txt");
+
+    /**
+     * main()과 같은 설정(BufferingApplicationStartup)으로 서버 시작
+     */
+    private static ConfigurableApplicationContext run(String database, boolean seedAccountsAsync) {
+        SpringApplication application = SpringbootRestapiInitApplication.application();
+        application.setAdditionalProfiles("test");
+        return application.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + database,
+                "--spring.datasource.hikari.jdbc-url=jdbc:h2:mem:" + database,
+                "--my-app.seed-accounts-async=" + seedAccountsAsync);
+    }
+
+    @Test
+    @DisplayName("기본 계정 추가를 기다리지 않고 허용 시간 안에 서버가 시작되는 테스트")
+    public void boot() throws Exception {
+        // When
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = run("startup", true)) {
+            Duration bootTime = Duration.ofNanos(System.nanoTime() - start);
+
+            // Then
+            System.out.println("boot time=" + bootTime.toMillis() + "ms");
+            assertThat(bootTime).isLessThan(BOOT_BUDGET);
+
+            // 기본 계정은 시작 후 추가됨
+            AppPropertices appPropertices = context.getBean(AppPropertices.class);
+            AccountRepository accountRepository = context.getBean(AccountRepository.class);
+            List<String> emails = List.of(appPropertices.getAdminUsername(), appPropertices.getUserUsername());
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (accountRepository.findEmailsByEmailIn(emails).size() < emails.size() && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(accountRepository.findEmailsByEmailIn(emails)).containsExactlyInAnyOrderElementsOf(emails);
+        }
+    }
+
+    @Test
+    @DisplayName("서버 시작 단계별 시간을 기록하고 오래 걸린 순서로 보고서를 만드는 테스트")
+    public void startupReport() throws Exception {
+        try (ConfigurableApplicationContext context = run("startup-report", false)) {
+            // Given
+            assertThat(context.getApplicationStartup()).isInstanceOf(BufferingApplicationStartup.class);
+            StartupTimeline timeline = ((BufferingApplicationStartup) context.getApplicationStartup()).getBufferedTimeline();
+            List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+
+            // When
+            List<StartupTimeline.TimelineEvent> slowest = events.stream()
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(REPORT_SIZE)
+                    .collect(Collectors.toList());
+            writeReport(timeline, slowest);
+
+            // Then
+            List<String> steps = events.stream().map(StartupTimelineSteps::describe).collect(Collectors.toList());
+            assertThat(steps).contains(
+                    "spring.beans.instantiate entityManagerFactory",
+                    "spring.beans.instantiate authServerConfig",
+                    "spring.beans.instantiate resourceServerConfig",
+                    "spring.beans.instantiate applicationRunner",
+                    "spring.beans.instantiate flywayInitializer",
+                    "my-app.hibernate.schema-validate",
+                    AppConfig.SEED_ACCOUNTS_STEP);
+            assertThat(slowest).hasSize(REPORT_SIZE);
+            assertThat(Files.readAllLines(REPORT)).hasSize(REPORT_SIZE + 2);
+
+            // /actuator/startup
+            assertThat(context.getBean(StartupEndpoint.class).startupSnapshot().getTimeline().getEvents()).isNotEmpty();
+        }
+    }
+
+    private static void writeReport(StartupTimeline timeline, List<StartupTimeline.TimelineEvent> slowest) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("startup steps (slowest " + slowest.size() + " of " + timeline.getEvents().size() + ")");
+        lines.add(String.format("%8s  %s", "ms", "step"));
+        for (StartupTimeline.TimelineEvent event : slowest) {
+            lines.add(String.format("%8d  %s", event.getDuration().toMillis(), StartupTimelineSteps.describe(event)));
+        }
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, lines, StandardCharsets.UTF_8);
+        lines.forEach(System.out::println);
+    }
+
+    private static final class StartupTimelineSteps {
+
+        /**
+         * 단계 이름 (bean 생성 단계는 bean 이름 포함)
+         */
+        static String describe(StartupTimeline.TimelineEvent event) {
+            StartupStep step = event.getStartupStep();
+            String beanName = StreamSupport.stream(step.getTags().spliterator(), false)
+                    .filter(tag -> tag.getKey().equals("beanName"))
+                    .map(StartupStep.Tag::getValue)
+                    .findFirst()
+                    .orElse(null);
+            return beanName == null ? step.getName() : step.getName() + " " + beanName;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.jonghak.springbootrestapiinit.accounts;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountRolesConverterTest {
+
+    private final AccountRolesConverter converter = new AccountRolesConverter();
+
+    private static Stream<Arguments> roles() {
+        return Stream.of(
+                Arguments.of(Set.of(), (short) 0),
+                Arguments.of(Set.of(AccountRole.ADMIN), (short) 1),
+                Arguments.of(Set.of(AccountRole.USER), (short) 2),
+                Arguments.of(Set.of(AccountRole.ADMIN, AccountRole.USER), (short) 3)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("roles")
+    @DisplayName("권한 목록을 bitmask로 저장하고 다시 같은 권한 목록으로 조회하는 테스트")
+    public void convert(Set<AccountRole> roles, short mask) {
+        assertThat(converter.convertToDatabaseColumn(roles)).isEqualTo(mask);
+        assertThat(converter.convertToEntityAttribute(mask)).isEqualTo(roles);
+    }
+
+    @Test
+    @DisplayName("권한 조합이 같은 계정은 같은 GrantedAuthority 목록을 공유하는 테스트")
+    public void authorities_shared() {
+        AccountAdapter user1 = new AccountAdapter(Account.builder().email("user1@email.com").password("pass")
+                .roles(Set.of(AccountRole.USER)).build());
+        AccountAdapter user2 = new AccountAdapter(Account.builder().email("user2@email.com").password("pass")
+                .roles(Set.of(AccountRole.USER)).build());
+        AccountAdapter admin = new AccountAdapter(Account.builder().email("admin@email.com").password("pass")
+                .roles(Set.of(AccountRole.ADMIN, AccountRole.USER)).build());
+
+        assertThat(user1.getAuthorities()).isSameAs(user2.getAuthorities());
+        assertThat(user1.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        assertThat(admin.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN", "ROLE_USER");
+    }
+}
@@ -1,18 +1,42 @@
 package com.jonghak.springbootrestapiinit.accounts;
 
 import com.jonghak.springbootrestapiinit.common.BaseTest;
+import com.jonghak.springbootrestapiinit.configs.AccountCacheProperties;
+import com.jonghak.springbootrestapiinit.configs.AppPropertices;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class AccountServiceTest extends BaseTest {
 
@@ -26,6 +50,157 @@ class AccountServiceTest extends BaseTest {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    AppPropertices appPropertices;
+
+    @BeforeEach
+    public void setUp() {
+        this.accountService.evictAll();
+    }
+
+    private Account saveAccount(String username, String password) {
+        Set<AccountRole> accountSet = new HashSet<>();
+        accountSet.add(AccountRole.USER);
+        return this.accountService.saveAccount(Account.builder()
+                .email(username)
+                .password(password)
+                .roles(accountSet)
+                .build());
+    }
+
+    @Test
+    @DisplayName("한번 조회한 계정은 DB를 다시 조회하지 않는 테스트")
+    public void loadUserByUsername_cached() {
+        // Given
+        String username = "cached@email.com";
+        saveAccount(username, "cached");
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // When
+        statistics.clear();
+        UserDetails first = accountService.loadUserByUsername(username);
+        long firstStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        UserDetails second = accountService.loadUserByUsername(username);
+
+        // Then
+        // 권한은 account 테이블의 컬럼이므로 계정 조회 한번 (account_roles 조회 없음)
+        assertThat(firstStatements).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(second.getUsername()).isEqualTo(first.getUsername());
+        assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+    }
+
+    @Test
+    @DisplayName("인증 후 비밀번호를 지워도 캐시한 계정의 비밀번호는 유지되는 테스트")
+    public void loadUserByUsername_eraseCredentials() {
+        // Given
+        String username = "erase@email.com";
+        saveAccount(username, "erase");
+        AccountAdapter accountAdapter = (AccountAdapter) accountService.loadUserByUsername(username);
+
+        // When
+        accountAdapter.eraseCredentials();
+
+        // Then
+        UserDetails userDetails = accountService.loadUserByUsername(username);
+        assertThat(userDetails).isNotSameAs(accountAdapter);
+        assertThat(this.passwordEncoder.matches("erase", userDetails.getPassword())).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{noop}legacy", "{bcrypt}lowcost"})
+    @DisplayName("로그인 성공 시 이전 hash 방식 또는 cost로 저장된 비밀번호를 다시 hash하는 테스트")
+    public void login_rehash(String storedPassword) throws Exception {
+        // Given
+        String username = "rehash@email.com";
+        String password = "legacy";
+        if (storedPassword.equals("{bcrypt}lowcost")) {
+            storedPassword = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(password);
+        }
+        accountRepository.findByEmail(username).ifPresent(accountRepository::delete);
+        accountRepository.save(Account.builder()
+                .email(username)
+                .password(storedPassword)
+                .roles(Set.of(AccountRole.USER))
+                .build());
+
+        // When
+        this.mockMvc.perform(post("/oauth/token")
+                        .with(httpBasic(appPropertices.getClientId(), appPropertices.getClientSecret()))
+                        .param("username", username)
+                        .param("password", password)
+                        .param("grant_type", "password"))
+                .andExpect(status().isOk());
+
+        // Then
+        String rehashed = accountRepository.findByEmail(username).orElseThrow().getPassword();
+        assertThat(rehashed).startsWith("{bcrypt}$2a$10$");
+        assertThat(this.passwordEncoder.matches(password, rehashed)).isTrue();
+        assertThat(this.passwordEncoder.upgradeEncoding(rehashed)).isFalse();
+    }
+
+    @Test
+    @DisplayName("계정 저장 시 캐시가 삭제되어 변경된 비밀번호로 조회되는 테스트")
+    public void saveAccount_evict() {
+        // Given
+        String username = "changed@email.com";
+        Account account = saveAccount(username, "before");
+        accountService.loadUserByUsername(username);
+
+        // When
+        account.setPassword("after");
+        accountService.saveAccount(account);
+
+        // Then
+        UserDetails userDetails = accountService.loadUserByUsername(username);
+        assertThat(this.passwordEncoder.matches("after", userDetails.getPassword())).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("계정 조회 중에 비밀번호가 변경되면 조회한 이전 계정을 캐시하지 않는 테스트")
+    public void saveAccount_whileLoading() throws Exception {
+        // Given
+        String username = "loading@email.com";
+        AccountRepository mockRepository = mock(AccountRepository.class);
+        AccountService service = new AccountService();
+        service.accountRepository = mockRepository;
+        service.passwordEncoder = this.passwordEncoder;
+        service.appPropertices = new AppPropertices();
+        service.accountCacheProperties = new AccountCacheProperties();
+        service.meterRegistry = mock(ObjectProvider.class);
+        service.init();
+
+        Account before = Account.builder().email(username).password("{noop}before").roles(Set.of(AccountRole.USER)).build();
+        Account after = Account.builder().email(username).password("{noop}after").roles(Set.of(AccountRole.USER)).build();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mockRepository.findByEmail(username)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(before);
+        }).thenReturn(Optional.of(after));
+        when(mockRepository.save(any(Account.class))).thenReturn(after);
+
+        // When : 조회 중에 비밀번호 변경
+        CompletableFuture<UserDetails> load = CompletableFuture.supplyAsync(() -> service.loadUserByUsername(username));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        service.saveAccount(Account.builder().email(username).password("after").roles(Set.of(AccountRole.USER)).build());
+        release.countDown();
+        assertThat(load.get(5, TimeUnit.SECONDS).getPassword()).isEqualTo("{noop}before");
+
+        // Then
+        assertThat(service.loadUserByUsername(username).getPassword()).isEqualTo("{noop}after");
+        verify(mockRepository, times(2)).findByEmail(username);
+    }
+
     @Test
     public void findeByUsername() {
         //Given
@@ -79,4 +254,32 @@ class AccountServiceTest extends BaseTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("이미 있는 계정은 한번의 조회로 확인하고 없는 계정만 저장하는 테스트")
+    public void saveAccountsIfAbsent() {
+        // Given
+        String existingUsername = "existing@email.com";
+        String newUsername = "new@email.com";
+        Account existing = saveAccount(existingUsername, "existing");
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // When : 모두 있는 경우
+        statistics.clear();
+        List<Account> saved = accountService.saveAccountsIfAbsent(List.of(
+                Account.builder().email(existingUsername).password("changed").roles(Set.of(AccountRole.USER)).build()));
+
+        // Then
+        assertThat(saved).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(accountRepository.findByEmail(existingUsername).orElseThrow().getPassword()).isEqualTo(existing.getPassword());
+
+        // When : 없는 계정 포함
+        saved = accountService.saveAccountsIfAbsent(List.of(
+                Account.builder().email(existingUsername).password("changed").roles(Set.of(AccountRole.USER)).build(),
+                Account.builder().email(newUsername).password("new").roles(Set.of(AccountRole.USER)).build()));
+
+        // Then
+        assertThat(saved).extracting(Account::getEmail).containsExactly(newUsername);
+        assertThat(passwordEncoder.matches("new", accountRepository.findByEmail(newUsername).orElseThrow().getPassword())).isTrue();
+    }
+}
@@ -0,0 +1,108 @@
+package com.jonghak.springbootrestapiinit.accounts;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonghak.springbootrestapiinit.configs.PasswordHashingProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class BoundedPasswordEncoderTest {
+
+    @SuppressWarnings("unchecked")
+    private BoundedPasswordEncoder passwordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setPoolSize(poolSize);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setTimeout(Duration.ofSeconds(10));
+        return new BoundedPasswordEncoder(delegate, properties, mock(ObjectProvider.class));
+    }
+
+    @Test
+    @DisplayName("hash 계산 pool과 대기열이 가득 차면 기다리지 않고 예외가 발생하는 테스트")
+    @SuppressWarnings("deprecation")
+    public void matches_rejected() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return NoOpPasswordEncoder.getInstance().matches(rawPassword, encodedPassword);
+            }
+        };
+        BoundedPasswordEncoder passwordEncoder = passwordEncoder(slowEncoder, 1, 1);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordEncoder.matches("pass", "pass"));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.matches("pass", "pass"));
+        while (!queued.isDone() && passwordEncoder.queuedCount() == 0) {
+            Thread.sleep(5);
+        }
+
+        // When
+        PasswordHashingUnavailableException exception =
+                assertThrows(PasswordHashingUnavailableException.class, () -> passwordEncoder.matches("pass", "pass"));
+
+        // Then
+        assertThat(exception.getHttpErrorCode()).isEqualTo(503);
+        assertThat(exception.getOAuth2ErrorCode()).isEqualTo("temporarily_unavailable");
+        release.countDown();
+        assertThat(running.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(10, TimeUnit.SECONDS)).isTrue();
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    @DisplayName("hash 방식 또는 bcrypt cost가 다르면 다시 hash 대상인 테스트")
+    public void upgradeEncoding() {
+        BoundedPasswordEncoder.StrengthAwareBCryptPasswordEncoder encoder = new BoundedPasswordEncoder.StrengthAwareBCryptPasswordEncoder(6);
+
+        assertThat(encoder.upgradeEncoding(encoder.encode("pass"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("pass"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(8).encode("pass"))).isTrue();
+        assertThat(encoder.upgradeEncoding("not bcrypt")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Filter 밖으로 전달된 hash pool 초과 예외를 503으로 응답하는 테스트")
+    public void filter_serviceUnavailable() throws Exception {
+        // Given
+        PasswordHashingUnavailableFilter filter = new PasswordHashingUnavailableFilter(new ObjectMapper());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("POST", "/oauth/token"), response, (req, res) -> {
+            throw new PasswordHashingUnavailableException("Too many password hashing requests");
+        });
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getContentAsString()).contains("\"error\":\"temporarily_unavailable\"");
+    }
+}
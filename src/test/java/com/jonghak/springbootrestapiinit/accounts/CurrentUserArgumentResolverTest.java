@@ -0,0 +1,58 @@
+package com.jonghak.springbootrestapiinit.accounts;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CurrentUserArgumentResolverTest {
+
+    private final CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver();
+
+    @SuppressWarnings("unused")
+    private void handler(@CurrentUser Account currentUser, Account account) {
+    }
+
+    private MethodParameter parameter(int index) throws NoSuchMethodException {
+        return new MethodParameter(getClass().getDeclaredMethod("handler", Account.class, Account.class), index);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("@CurrentUser Account 파라미터만 처리하는 테스트")
+    public void supportsParameter() throws Exception {
+        assertThat(resolver.supportsParameter(parameter(0))).isTrue();
+        assertThat(resolver.supportsParameter(parameter(1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("로그인한 사용자는 Account, 익명 사용자는 null로 처리하는 테스트")
+    public void resolveArgument() throws Exception {
+        // 인증정보 없음
+        assertThat(resolver.resolveArgument(parameter(0), null, null, null)).isNull();
+
+        // 익명 사용자
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        assertThat(resolver.resolveArgument(parameter(0), null, null, null)).isNull();
+
+        // 로그인한 사용자
+        Account account = Account.builder().id(1).email("user@email.com").password("pass").roles(Set.of(AccountRole.USER)).build();
+        AccountAdapter accountAdapter = new AccountAdapter(account);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(accountAdapter, null, accountAdapter.getAuthorities()));
+        assertThat(resolver.resolveArgument(parameter(0), null, null, null)).isSameAs(account);
+    }
+}
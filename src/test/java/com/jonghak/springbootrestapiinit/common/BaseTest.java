@@ -24,7 +24,7 @@ public class BaseTest {
     @Autowired
     protected ObjectMapper objectMapper;
 
-    @Autowired
-    protected ModelMapper modelMapper;
+    // 운영 코드에서는 사용하지 않으므로 bean으로 등록하지 않음
+    protected ModelMapper modelMapper = new ModelMapper();
 
 }
@@ -0,0 +1,161 @@
+package com.jonghak.springbootrestapiinit.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonghak.springbootrestapiinit.configs.RateLimitProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private final TokenStore tokenStore = mock(TokenStore.class);
+
+    @SuppressWarnings("unchecked")
+    private RateLimitFilter rateLimitFilter() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(
+                new RateLimitProperties.Route("token", EnumSet.of(HttpMethod.POST), "/oauth/token", 2, Duration.ofHours(1)),
+                new RateLimitProperties.Route("events-write", EnumSet.of(HttpMethod.POST, HttpMethod.PUT), "/api/events/**", 2, Duration.ofHours(1))));
+        return new RateLimitFilter(properties, tokenStore, new ObjectMapper(), mock(ObjectProvider.class));
+    }
+
+    private MockHttpServletResponse perform(RateLimitFilter filter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest tokenRequest(String clientSecret, String username, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/oauth/token");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Basic "
+                + Base64.getEncoder().encodeToString(("myApp:" + clientSecret).getBytes(StandardCharsets.UTF_8)));
+        request.setParameter("grant_type", "password");
+        request.setParameter("username", username);
+        request.setParameter("password", "pass");
+        return request;
+    }
+
+    private MockHttpServletRequest eventRequest(String method, String accessToken, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/events");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
+        return request;
+    }
+
+    private OAuth2Authentication authentication(String username) {
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "myApp",
+                AuthorityUtils.NO_AUTHORITIES, true, null, null, null, null, null);
+        return new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    @Test
+    @DisplayName("token 발급 요청이 IP별 제한을 넘으면 429와 Retry-After로 응답하는 테스트")
+    public void tokenRequest_tooManyRequests() throws Exception {
+        // Given
+        RateLimitFilter filter = rateLimitFilter();
+
+        // When
+        MockHttpServletResponse first = perform(filter, tokenRequest("pass", "user@email.com", "10.0.0.1"));
+        MockHttpServletResponse second = perform(filter, tokenRequest("pass", "user@email.com", "10.0.0.1"));
+        MockHttpServletResponse third = perform(filter, tokenRequest("pass", "user@email.com", "10.0.0.1"));
+
+        // Then
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(third.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(third.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, TimeUnit.MINUTES.toSeconds(30));
+        assertThat(third.getContentAsString()).contains("\"error\":\"too_many_requests\"");
+    }
+
+    @Test
+    @DisplayName("잘못된 client secret으로 보낸 요청이 다른 사용자의 token 발급을 막지 않는 테스트")
+    public void tokenRequest_wrongClientSecret_doesNotExhaustOthers() throws Exception {
+        // Given
+        RateLimitFilter filter = rateLimitFilter();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            perform(filter, tokenRequest("wrong", "user@email.com", "10.0.0.66"));
+            perform(filter, tokenRequest("wrong", "admin@email.com", "10.0.0.66"));
+        }
+
+        // Then
+        assertThat(perform(filter, tokenRequest("wrong", "user@email.com", "10.0.0.66")).getStatus()).isEqualTo(429);
+        assertThat(perform(filter, tokenRequest("pass", "user@email.com", "10.0.0.1")).getStatus()).isEqualTo(200);
+        assertThat(perform(filter, tokenRequest("pass", "admin@email.com", "10.0.0.2")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("요청마다 username을 바꿔도 같은 IP의 token 발급 요청은 함께 제한하는 테스트")
+    public void tokenRequest_rotatingUsername_sameBucket() throws Exception {
+        // Given
+        RateLimitFilter filter = rateLimitFilter();
+
+        // When
+        MockHttpServletResponse first = perform(filter, tokenRequest("pass", "user1@email.com", "10.0.0.66"));
+        MockHttpServletResponse second = perform(filter, tokenRequest("pass", "user2@email.com", "10.0.0.66"));
+        MockHttpServletResponse third = perform(filter, tokenRequest("pass", "user3@email.com", "10.0.0.66"));
+
+        // Then
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(third.getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("이벤트 생성/수정 요청은 계정별로 제한하고 조회 요청은 제한하지 않는 테스트")
+    public void eventRequest_perAccount() throws Exception {
+        // Given
+        RateLimitFilter filter = rateLimitFilter();
+        when(tokenStore.readAuthentication("user-token1")).thenReturn(authentication("user@email.com"));
+        when(tokenStore.readAuthentication("user-token2")).thenReturn(authentication("user@email.com"));
+        when(tokenStore.readAuthentication("admin-token")).thenReturn(authentication("admin@email.com"));
+
+        // When & Then
+        assertThat(perform(filter, eventRequest("POST", "user-token1", "10.0.0.1")).getStatus()).isEqualTo(200);
+        assertThat(perform(filter, eventRequest("PUT", "user-token2", "10.0.0.2")).getStatus()).isEqualTo(200);
+        assertThat(perform(filter, eventRequest("POST", "user-token1", "10.0.0.3")).getStatus()).isEqualTo(429);
+        assertThat(perform(filter, eventRequest("POST", "admin-token", "10.0.0.1")).getStatus()).isEqualTo(200);
+        for (int i = 0; i < 10; i++) {
+            assertThat(perform(filter, eventRequest("GET", "user-token1", "10.0.0.1")).getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    @DisplayName("token bucket이 refillPeriod / capacity 마다 token을 하나씩 다시 채우는 테스트")
+    public void tokenBucket_refill() {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        TokenBucket bucket = new TokenBucket(2, Duration.ofSeconds(2), 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(second / 2)).isEqualTo(second / 2);
+        assertThat(bucket.tryConsume(second)).isZero();
+        assertThat(bucket.availableTokens(second)).isZero();
+        assertThat(bucket.availableTokens(10 * second)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,138 @@
+package com.jonghak.springbootrestapiinit.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    @DisplayName("같은 key로 동시에 조회하면 loader는 한번만 실행되는 테스트")
+    public void load_concurrent() throws Exception {
+        // Given
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(10));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> singleFlight.load(1, key -> {
+                loads.incrementAndGet();
+                await(release);
+                return "event" + key;
+            })));
+        }
+        // 모든 thread가 loader 실행 또는 결과 대기 상태가 된 후 조회 완료
+        awaitLoading(THREADS);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("event1");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("loader에서 발생한 예외를 기다리던 모든 요청이 받는 테스트")
+    public void load_error() throws Exception {
+        // Given
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> singleFlight.load(1, key -> {
+                await(release);
+                throw new IllegalStateException("load failed");
+            })));
+        }
+        awaitLoading(THREADS);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            Exception exception = assertThrows(Exception.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class).hasMessage("load failed");
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("다른 요청의 조회 결과를 timeout 동안 받지 못하면 예외가 발생하는 테스트")
+    public void load_timeout() throws Exception {
+        // Given
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> slow = executor.submit(() -> singleFlight.load(1, key -> {
+            await(release);
+            return "slow";
+        }));
+        awaitLoading(1);
+
+        // When & Then
+        assertThrows(QueryTimeoutException.class, () -> singleFlight.load(1, key -> "fast"));
+        release.countDown();
+        assertThat(slow.get(10, TimeUnit.SECONDS)).isEqualTo("slow");
+
+        // 조회가 끝난 key는 다시 조회한다
+        assertThat(singleFlight.load(1, key -> "next")).isEqualTo("next");
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * SingleFlight.load를 호출한 thread들이 모두 대기(WAITING, TIMED_WAITING) 상태가 될 때까지 기다림
+     */
+    private static void awaitLoading(int threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            long waiting = Thread.getAllStackTraces().keySet().stream()
+                    .filter(t -> t.getState() == Thread.State.WAITING || t.getState() == Thread.State.TIMED_WAITING)
+                    .filter(SingleFlightTest::isLoading)
+                    .count();
+            if (waiting >= threads) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("threads did not start");
+    }
+
+    private static boolean isLoading(Thread thread) {
+        for (StackTraceElement element : thread.getStackTrace()) {
+            if (element.getClassName().equals(SingleFlight.class.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
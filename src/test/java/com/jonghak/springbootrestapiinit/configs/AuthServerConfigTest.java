@@ -2,10 +2,16 @@ package com.jonghak.springbootrestapiinit.configs;
 
 import com.jonghak.springbootrestapiinit.accounts.AccountService;
 import com.jonghak.springbootrestapiinit.common.BaseTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -20,6 +26,9 @@ public class AuthServerConfigTest extends BaseTest {
     @Autowired
     AppPropertices appPropertices;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
     @Test
     @DisplayName("인증 토큰을 발급 받는 테스트")
     public void getAuthToken() throws Exception {
@@ -33,4 +42,32 @@ public class AuthServerConfigTest extends BaseTest {
                 .andExpect(jsonPath("access_token").exists());
     }
 
+    @Test
+    @DisplayName("토큰을 반복해서 발급 받을 때 계정은 처음 한번만 DB에서 조회하는 테스트")
+    public void getAuthToken_load() throws Exception {
+        // Given
+        int grants = 20;
+        accountService.evictAll();
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        long[] statements = new long[grants];
+        for (int i = 0; i < grants; i++) {
+            long before = statistics.getPrepareStatementCount();
+            this.mockMvc.perform(post("/oauth/token")
+                            .with(httpBasic(appPropertices.getClientId(), appPropertices.getClientSecret()))
+                            .param("username", appPropertices.getUserUsername())
+                            .param("password", appPropertices.getUserPassword())
+                            .param("grant_type", "password"))
+                    .andExpect(status().isOk());
+            statements[i] = statistics.getPrepareStatementCount() - before;
+        }
+
+        // Then
+        System.out.println("statements per grant=" + Arrays.toString(statements));
+        assertThat(statements[0]).isEqualTo(1);
+        assertThat(Arrays.stream(statements).skip(1).sum()).isZero();
+    }
+
 }
\ No newline at end of file
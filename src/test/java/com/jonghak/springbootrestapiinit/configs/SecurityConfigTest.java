@@ -0,0 +1,158 @@
+package com.jonghak.springbootrestapiinit.configs;
+
+import com.jonghak.springbootrestapiinit.accounts.Account;
+import com.jonghak.springbootrestapiinit.accounts.AccountRepository;
+import com.jonghak.springbootrestapiinit.accounts.AccountRole;
+import com.jonghak.springbootrestapiinit.accounts.AccountService;
+import com.jonghak.springbootrestapiinit.common.BaseTest;
+import com.jonghak.springbootrestapiinit.events.Event;
+import com.jonghak.springbootrestapiinit.events.EventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.json.JacksonJsonParser;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.header.HeaderWriterFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SecurityConfigTest extends BaseTest {
+
+    // Spring Security filter chain(HeaderWriterFilter)에서 추가하는 응답 헤더
+    private static final String X_CONTENT_TYPE_OPTIONS = "X-Content-Type-Options";
+
+    @Autowired
+    AppPropertices appPropertices;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    FilterChainProxy filterChainProxy;
+
+    private Event saveEvent() {
+        Account manager = accountRepository.findByEmail(appPropertices.getUserUsername())
+                .orElseGet(() -> accountService.saveAccount(Account.builder()
+                        .email(appPropertices.getUserUsername())
+                        .password(appPropertices.getUserPassword())
+                        .roles(Set.of(AccountRole.USER))
+                        .build()));
+        return eventRepository.save(Event.builder()
+                .name("security")
+                .description("fast path")
+                .beginEnrollmentDateTime(LocalDateTime.of(2022, 9, 1, 0, 0))
+                .manager(manager)
+                .build());
+    }
+
+    private String getBearerToken() throws Exception {
+        String response = this.mockMvc.perform(post("/oauth/token")
+                        .with(httpBasic(appPropertices.getClientId(), appPropertices.getClientSecret()))
+                        .param("username", appPropertices.getUserUsername())
+                        .param("password", appPropertices.getUserPassword())
+                        .param("grant_type", "password"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return "Bearer " + new JacksonJsonParser().parseMap(response).get("access_token");
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    @Test
+    @DisplayName("access token 없는 GET /api/** 요청만 익명 조회 filter chain으로 처리하는 테스트")
+    public void anonymousReadRequestMatcher() {
+        RequestMatcher matcher = AnonymousReadSecurityConfig.anonymousReadRequestMatcher();
+
+        assertThat(matcher.matches(request("GET", "/api/events"))).isTrue();
+        assertThat(matcher.matches(request("GET", "/api/events/1"))).isTrue();
+
+        MockHttpServletRequest authorization = request("GET", "/api/events");
+        authorization.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+        assertThat(matcher.matches(authorization)).isFalse();
+
+        MockHttpServletRequest accessToken = request("GET", "/api/events");
+        accessToken.setParameter("access_token", "token");
+        assertThat(matcher.matches(accessToken)).isFalse();
+
+        assertThat(matcher.matches(request("POST", "/api/events"))).isFalse();
+        assertThat(matcher.matches(request("GET", "/oauth/token"))).isFalse();
+        assertThat(matcher.matches(request("GET", "/docs/index.html"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("익명 사용자 이벤트 조회는 인증 filter 없이 보안 응답 헤더만 추가하고 수정 link가 없는 테스트")
+    public void getEvent_anonymous() throws Exception {
+        Event event = saveEvent();
+
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(X_CONTENT_TYPE_OPTIONS, "nosniff"))
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL))
+                .andExpect(result -> assertThat(result.getRequest().getSession(false)).isNull())
+                .andExpect(jsonPath("name").value("security"))
+                .andExpect(jsonPath("_links.update-event").doesNotExist());
+
+        assertThat(filterChainProxy.getFilters("/api/events/" + event.getId()))
+                .extracting(Object::getClass)
+                .containsExactly(HeaderWriterFilter.class);
+    }
+
+    @Test
+    @DisplayName("access token이 있는 이벤트 조회는 filter chain에서 인증하고 수정 link가 있는 테스트")
+    public void getEvent_authenticated() throws Exception {
+        Event event = saveEvent();
+
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(X_CONTENT_TYPE_OPTIONS))
+                .andExpect(jsonPath("_links.update-event").exists());
+    }
+
+    @Test
+    @DisplayName("잘못된 access token으로 조회하면 filter chain에서 인증 실패하는 테스트")
+    public void getEvent_invalidToken() throws Exception {
+        Event event = saveEvent();
+
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer invalid"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("JWT 서명 key가 없으면 서버를 시작하지 않는 테스트")
+    public void accessTokenConverter_withoutSigningKey() {
+        // Given
+        TokenStoreProperties tokenStoreProperties = new TokenStoreProperties();
+        tokenStoreProperties.setType(TokenStoreProperties.Type.JWT);
+        tokenStoreProperties.setSigningKey(" ");
+
+        // When & Then
+        assertThatThrownBy(() -> new SecurityConfig().accessTokenConverter(tokenStoreProperties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("my-app.token-store.signing-key");
+    }
+}
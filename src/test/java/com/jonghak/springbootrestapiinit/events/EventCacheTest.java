@@ -0,0 +1,148 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import com.jonghak.springbootrestapiinit.configs.EventCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EventCacheTest {
+
+    @SuppressWarnings("unchecked")
+    private EventCache eventCache(EventRepository eventRepository, boolean enabled) {
+        EventCacheProperties properties = new EventCacheProperties();
+        properties.setEnabled(enabled);
+        properties.setMaximumSize(10);
+        return new EventCache(eventRepository, properties, mock(ObjectProvider.class));
+    }
+
+    @Test
+    @DisplayName("캐시에 있는 이벤트는 DB에서 다시 조회하지 않는 테스트")
+    public void findById_hit() {
+        // Given
+        EventRepository eventRepository = mock(EventRepository.class);
+        when(eventRepository.findById(1)).thenReturn(Optional.of(Event.builder().id(1).name("event").build()));
+        EventCache eventCache = eventCache(eventRepository, true);
+
+        // When
+        eventCache.findById(1);
+        Optional<Event> event = eventCache.findById(1);
+
+        // Then
+        assertThat(event).isPresent();
+        verify(eventRepository, times(1)).findById(1);
+        assertThat(eventCache.stats().hitCount()).isEqualTo(1);
+        assertThat(eventCache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("캐시 삭제 후에는 DB에서 다시 조회하는 테스트")
+    public void findById_evict() {
+        // Given
+        EventRepository eventRepository = mock(EventRepository.class);
+        when(eventRepository.findById(1)).thenReturn(Optional.of(Event.builder().id(1).name("event").build()));
+        EventCache eventCache = eventCache(eventRepository, true);
+        eventCache.findById(1);
+
+        // When
+        eventCache.evict(1);
+        eventCache.findById(1);
+
+        // Then
+        verify(eventRepository, times(2)).findById(1);
+    }
+
+    @Test
+    @DisplayName("존재하지 않는 이벤트는 캐시하지 않는 테스트")
+    public void findById_notFound() {
+        // Given
+        EventRepository eventRepository = mock(EventRepository.class);
+        when(eventRepository.findById(any())).thenReturn(Optional.empty());
+        EventCache eventCache = eventCache(eventRepository, true);
+
+        // When
+        eventCache.findById(1);
+        Optional<Event> event = eventCache.findById(1);
+
+        // Then
+        assertThat(event).isEmpty();
+        verify(eventRepository, times(2)).findById(1);
+    }
+
+    @Test
+    @DisplayName("캐시를 사용하지 않도록 설정한 경우 항상 DB에서 조회하는 테스트")
+    public void findById_disabled() {
+        // Given
+        EventRepository eventRepository = mock(EventRepository.class);
+        when(eventRepository.findById(1)).thenReturn(Optional.of(Event.builder().id(1).name("event").build()));
+        EventCache eventCache = eventCache(eventRepository, false);
+
+        // When
+        eventCache.put(Event.builder().id(1).build());
+        eventCache.findById(1);
+        eventCache.findById(1);
+
+        // Then
+        verify(eventRepository, times(2)).findById(1);
+    }
+
+    /**
+     * id 이벤트 조회를 시작하고, DB 조회 중에 whileLoading을 실행한 후 조회를 끝냄
+     */
+    private void loadWhile(EventCache eventCache, EventRepository eventRepository, int id, Runnable whileLoading) throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(eventRepository.findById(id)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(Event.builder().id(id).name("before update").build());
+        }).thenReturn(Optional.of(Event.builder().id(id).name("after update").build()));
+
+        CompletableFuture<Optional<Event>> load = CompletableFuture.supplyAsync(() -> eventCache.findById(id));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        whileLoading.run();
+        release.countDown();
+        assertThat(load.get(5, TimeUnit.SECONDS)).isPresent();
+    }
+
+    @Test
+    @DisplayName("조회 중에 같은 이벤트가 수정(evict)되면 조회 결과를 캐시하지 않는 테스트")
+    public void findById_evictWhileLoading() throws Exception {
+        // Given
+        EventRepository eventRepository = mock(EventRepository.class);
+        EventCache eventCache = eventCache(eventRepository, true);
+
+        // When
+        loadWhile(eventCache, eventRepository, 1, () -> eventCache.evict(1));
+        Optional<Event> event = eventCache.findById(1);
+
+        // Then
+        assertThat(event.get().getName()).isEqualTo("after update");
+        verify(eventRepository, times(2)).findById(1);
+    }
+
+    @Test
+    @DisplayName("조회 중에 다른 이벤트가 수정(evict)되어도 조회 결과를 캐시하는 테스트")
+    public void findById_evictOtherWhileLoading() throws Exception {
+        // Given
+        EventRepository eventRepository = mock(EventRepository.class);
+        EventCache eventCache = eventCache(eventRepository, true);
+
+        // When
+        loadWhile(eventCache, eventRepository, 1, () -> eventCache.evict(2));
+        Optional<Event> event = eventCache.findById(1);
+
+        // Then
+        assertThat(event.get().getName()).isEqualTo("before update");
+        verify(eventRepository, times(1)).findById(1);
+    }
+}
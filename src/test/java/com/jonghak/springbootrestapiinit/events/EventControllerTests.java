@@ -1,8 +1,11 @@
 package com.jonghak.springbootrestapiinit.events;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.jonghak.springbootrestapiinit.accounts.*;
 import com.jonghak.springbootrestapiinit.common.BaseTest;
 import com.jonghak.springbootrestapiinit.configs.AppPropertices;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,16 +18,31 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders;
 import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.restdocs.headers.HeaderDocumentation.*;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
@@ -50,10 +68,17 @@ public class EventControllerTests extends BaseTest {
     @Autowired
     AppPropertices appPropertices;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    EventCache eventCache;
+
     @BeforeEach
     public void setUp() {
         this.eventRepository.deleteAll();
         this.accountRepository.deleteAll();
+        this.accountService.evictAll();
     }
 
     @Test
@@ -284,6 +309,117 @@ public class EventControllerTests extends BaseTest {
         ;
     }
 
+    @Test
+    @DisplayName("Event 여러 이벤트를 한번에 생성하고 잘못된 항목은 에러를 응답받기")
+    public void createEvents() throws Exception {
+        // Given : 올바른 이벤트 3개, 가격이 잘못된 이벤트 1개, 비어있는 이벤트 1개
+        List<EventDto> eventDtos = new ArrayList<>();
+        IntStream.range(0, 3).forEach(i -> eventDtos.add(generateEventDto(i)));
+        EventDto wrongEventDto = generateEventDto(3);
+        wrongEventDto.setBasePrice(10000);
+        eventDtos.add(wrongEventDto);
+        eventDtos.add(EventDto.builder().build());
+
+        // When & Then
+        mockMvc.perform(post("/api/events/batch")
+                        .header(HttpHeaders.AUTHORIZATION, getBearerToken(appPropertices.getUserUsername()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(eventDtos)))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(3))
+                .andExpect(jsonPath("_embedded.eventList[0].id").exists())
+                .andExpect(jsonPath("_embedded.eventList[0].free").value(false))
+                .andExpect(jsonPath("_embedded.eventList[0].offline").value(true))
+                .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+                .andExpect(jsonPath("failures.length()").value(2))
+                .andExpect(jsonPath("failures[0].index").value(3))
+                .andExpect(jsonPath("failures[0].errors[0].objectName").exists())
+                .andExpect(jsonPath("failures[0].errors[0].code").exists())
+                .andExpect(jsonPath("failures[1].index").value(4))
+                .andExpect(jsonPath("_links.query-events").exists())
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("create-events",
+                        links(
+                                linkWithRel("query-events").description("link to query events"),
+                                linkWithRel("profile").description("link to profile an existing")
+                        ),
+                        relaxedResponseFields(
+                                fieldWithPath("_embedded.eventList[]").description("created events"),
+                                fieldWithPath("failures[].index").description("index of the event that could not be created in the request"),
+                                fieldWithPath("failures[].errors[]").description("errors of the event that could not be created")
+                        )
+                ))
+        ;
+        assertThat(this.eventRepository.count(), is(3L));
+    }
+
+    @Test
+    @DisplayName("Event 여러 이벤트 생성 시 insert를 묶어서 실행하는 테스트")
+    public void createEventsBatchInsert() throws Exception {
+        // Given
+        List<EventDto> eventDtos = IntStream.range(0, 60).mapToObj(this::generateEventDto).collect(Collectors.toList());
+        String bearerToken = getBearerToken(appPropertices.getUserUsername());
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // When
+        statistics.clear();
+        mockMvc.perform(post("/api/events/batch")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(eventDtos)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(60))
+                .andExpect(jsonPath("failures").doesNotExist());
+
+        // Then : sequence 조회(50건마다) + insert batch 2번(50, 10)
+        long statements = statistics.getPrepareStatementCount();
+        assertThat("statements=" + statements, statements <= 5);
+        assertThat(this.eventRepository.count(), is(60L));
+    }
+
+    @Test
+    @DisplayName("Event 여러 이벤트 생성 시 생성할 수 있는 이벤트가 없으면 400 응답받기")
+    public void createEvents400() throws Exception {
+        String bearerToken = getBearerToken(appPropertices.getUserUsername());
+
+        mockMvc.perform(post("/api/events/batch")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("empty"))
+                .andExpect(jsonPath("_links.index").exists());
+
+        mockMvc.perform(post("/api/events/batch")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(EventDto.builder().build()))))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("_embedded").doesNotExist())
+                .andExpect(jsonPath("failures[0].index").value(0))
+                .andExpect(jsonPath("failures[0].errors[0].code").exists());
+        assertThat(this.eventRepository.count(), is(0L));
+    }
+
+    private EventDto generateEventDto(int index) {
+        return EventDto.builder()
+                .name("event" + index)
+                .description("test event")
+                .beginEnrollmentDateTime(LocalDateTime.of(2022, 8, 28, 0, 0, 0))
+                .closeEnrollmentDateTime(LocalDateTime.of(2022, 8, 29, 0, 0, 0))
+                .beginEventDateTime(LocalDateTime.of(2022, 8, 30, 0, 0, 0))
+                .endEventDateTime(LocalDateTime.of(2022, 8, 31, 0, 0, 0))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("군포시")
+                .build();
+    }
+
     @ParameterizedTest
     @MethodSource("paramsForTestFree")
     @DisplayName("Event 입력값별 Free 테스트")
@@ -347,7 +483,7 @@ public class EventControllerTests extends BaseTest {
         this.mockMvc.perform(get("/api/events")
                         .param("page", "1")
                         .param("size", "10")
-                        .param("sort", "name,DESC")
+                        .param("sort", "beginEnrollmentDateTime,DESC")
                 )
                 .andDo(print())
                 .andExpect(status().isOk())
@@ -424,7 +560,7 @@ public class EventControllerTests extends BaseTest {
                         .header(HttpHeaders.AUTHORIZATION, getBearerToken(appPropertices.getUserUsername()))
                         .param("page", "1")
                         .param("size", "10")
-                        .param("sort", "name,DESC")
+                        .param("sort", "beginEnrollmentDateTime,DESC")
                 )
                 .andDo(print())
                 .andExpect(status().isOk())
@@ -490,6 +626,574 @@ public class EventControllerTests extends BaseTest {
         ;
     }
 
+    @Test
+    @DisplayName("Event 같은 값으로 정렬한 이벤트는 id 순서로 조회하기")
+    public void queryEventsWithSortTiebreaker() throws Exception {
+
+        saveAccout();
+
+        // Given
+        List<Event> events = IntStream.range(0, 5).mapToObj(this::generateEvent).collect(Collectors.toList());
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events")
+                        .param("size", "3")
+                        .param("sort", "basePrice,DESC")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(events.get(4).getId()))
+                .andExpect(jsonPath("_embedded.eventList[1].id").value(events.get(3).getId()))
+                .andExpect(jsonPath("_embedded.eventList[2].id").value(events.get(2).getId()))
+        ;
+    }
+
+    @Test
+    @DisplayName("Event index가 없는 property로 정렬해서 조회하는 경우 400 응답받기")
+    public void queryEventsWithUnsortableProperty400() throws Exception {
+        this.mockMvc.perform(get("/api/events")
+                        .param("sort", "description,ASC")
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].objectName").exists())
+                .andExpect(jsonPath("errors[0].code").value("wrongValue"))
+                .andExpect(jsonPath("errors[0].defaultMessage").exists())
+                .andExpect(jsonPath("_links.index").exists())
+        ;
+
+        // 두번째 정렬 조건은 id만 가능
+        this.mockMvc.perform(get("/api/events/slice")
+                        .param("sort", "basePrice,DESC")
+                        .param("sort", "beginEventDateTime,DESC")
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("wrongValue"))
+        ;
+    }
+
+    @Test
+    @DisplayName("Event 최대 페이지 크기보다 크게 요청하는 경우 최대 크기로 조회하기")
+    public void queryEventsWithPageSizeOverMax() throws Exception {
+
+        saveAccout();
+
+        // Given
+        IntStream.range(0, 3).forEach(this::generateEvent);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events")
+                        .param("size", String.valueOf(appPropertices.getEventPageMaxSize() + 1))
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.size").value(appPropertices.getEventPageMaxSize()))
+        ;
+    }
+
+    @Test
+    @DisplayName("Event 30개의 이벤트를 count 없이 10개씩 두번째 Slice 조회하기")
+    public void queryEventsBySlice() throws Exception {
+
+        saveAccout();
+
+        // Given
+        IntStream.range(0, 30).forEach(this::generateEvent);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/slice")
+                        .param("page", "1")
+                        .param("size", "10")
+                        .param("sort", "beginEnrollmentDateTime,DESC")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+                .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+                .andExpect(jsonPath("slice.number").value(1))
+                .andExpect(jsonPath("slice.hasNext").value(true))
+                .andExpect(jsonPath("slice.totalElementsEstimate").doesNotExist())
+                .andExpect(jsonPath("page").doesNotExist())
+                .andExpect(jsonPath("_links.prev").exists())
+                .andExpect(jsonPath("_links.next").exists())
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("query-events-slice",
+                        links(
+                                linkWithRel("self").description("link to self"),
+                                linkWithRel("first").description("link to first page"),
+                                linkWithRel("prev").description("link to prev page"),
+                                linkWithRel("next").description("link to next page"),
+                                linkWithRel("profile").description("link to profile an existing")
+                        ),
+                        requestParameters(
+                                parameterWithName("page").description("page of Pageable"),
+                                parameterWithName("size").description("size of Pageable"),
+                                parameterWithName("sort").description("sort of Pageable")
+                        )
+                ))
+        ;
+    }
+
+    @Test
+    @DisplayName("Event 마지막 Slice 조회 시 대략적인 전체 건수 제공")
+    public void queryEventsBySliceWithEstimate() throws Exception {
+
+        saveAccout();
+
+        // Given
+        IntStream.range(0, 30).forEach(this::generateEvent);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/slice")
+                        .param("page", "2")
+                        .param("size", "10")
+                        .param("estimateTotal", "true")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("slice.hasNext").value(false))
+                .andExpect(jsonPath("slice.totalElementsEstimate").isNumber())
+                .andExpect(jsonPath("_links.next").doesNotExist())
+        ;
+    }
+
+    @Test
+    @DisplayName("Event 30개의 이벤트를 커서로 10개씩 끝까지 조회하기")
+    public void queryEventsByCursor() throws Exception {
+
+        saveAccout();
+
+        // Given
+        IntStream.range(0, 30).forEach(this::generateEvent);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/cursor")
+                        .param("size", "10")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+                .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.first").exists())
+                .andExpect(jsonPath("_links.next").exists())
+                .andExpect(jsonPath("_links.prev").doesNotExist())
+                .andExpect(jsonPath("_links.profile").exists())
+                .andExpect(jsonPath("page").doesNotExist())
+                .andDo(document("query-events-cursor",
+                        links(
+                                linkWithRel("self").description("link to self"),
+                                linkWithRel("first").description("link to first page"),
+                                linkWithRel("next").description("link to next page"),
+                                linkWithRel("profile").description("link to profile an existing")
+                        ),
+                        requestParameters(
+                                parameterWithName("size").description("size of cursor page")
+                        )
+                ))
+        ;
+
+        // 다음 링크를 따라 끝까지 조회하면 모든 이벤트를 중복없이 순서대로 조회한다
+        Set<Integer> ids = new LinkedHashSet<>();
+        String next = "/api/events/cursor?size=10";
+        int pages = 0;
+        while (next != null) {
+            String body = this.mockMvc.perform(get(next))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode root = objectMapper.readTree(body);
+            root.path("_embedded").path("eventList").forEach(e -> ids.add(e.get("id").asInt()));
+            JsonNode nextLink = root.path("_links").path("next").path("href");
+            next = nextLink.isMissingNode() ? null : nextLink.asText();
+            pages++;
+        }
+        assertThat("pages=" + pages, pages == 3);
+        assertThat("ids=" + ids.size(), ids.size() == 30);
+        assertThat("ordered", ids.stream().sorted().collect(Collectors.toList()).equals(new ArrayList<>(ids)));
+    }
+
+    @Test
+    @DisplayName("Event 커서 이전 페이지 조회하기")
+    public void queryEventsByCursorBefore() throws Exception {
+
+        saveAccout();
+
+        // Given
+        Event[] events = IntStream.range(0, 5).mapToObj(this::generateEvent).toArray(Event[]::new);
+        String cursor = EventCursor.of(events[3]).encode();
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/cursor")
+                        .param("before", cursor)
+                        .param("size", "2")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(events[1].getId()))
+                .andExpect(jsonPath("_embedded.eventList[1].id").value(events[2].getId()))
+                .andExpect(jsonPath("_links.prev").exists())
+                .andExpect(jsonPath("_links.next").exists())
+        ;
+    }
+
+    @Test
+    @DisplayName("Event 커서 이전 페이지 조회 시 이후 이벤트가 없으면 next link 없이 응답받기")
+    public void queryEventsByCursorBefore_noNext() throws Exception {
+
+        saveAccout();
+
+        // Given
+        Event[] events = IntStream.range(0, 3).mapToObj(this::generateEvent).toArray(Event[]::new);
+        String cursor = EventCursor.of(events[2]).encode();
+        this.eventRepository.deleteById(events[2].getId());
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/cursor")
+                        .param("before", cursor)
+                        .param("size", "2")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(events[0].getId()))
+                .andExpect(jsonPath("_embedded.eventList[1].id").value(events[1].getId()))
+                .andExpect(jsonPath("_links.prev").doesNotExist())
+                .andExpect(jsonPath("_links.next").doesNotExist())
+        ;
+    }
+
+    @Test
+    @DisplayName("Event 커서 조회 크기를 최대 페이지 크기보다 크게 요청하는 경우 최대 크기로 조회하기")
+    public void queryEventsByCursorWithSizeOverMax() throws Exception {
+
+        saveAccout();
+
+        // Given
+        IntStream.range(0, 3).forEach(this::generateEvent);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/cursor")
+                        .param("size", String.valueOf(Integer.MAX_VALUE))
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(3))
+                .andExpect(jsonPath("_links.self.href").value(endsWith("size=" + appPropertices.getEventPageMaxSize())))
+        ;
+    }
+
+    @Test
+    @DisplayName("Event 잘못된 커서로 조회하는 경우 400 응답받기")
+    public void queryEventsByCursor400() throws Exception {
+        this.mockMvc.perform(get("/api/events/cursor")
+                        .param("after", "wrong-cursor")
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].objectName").exists())
+                .andExpect(jsonPath("errors[0].code").exists())
+                .andExpect(jsonPath("_links.index").exists())
+        ;
+    }
+
+    @Test
+    @DisplayName("Event 검색 조건으로 이벤트 검색하기")
+    public void searchEvents() throws Exception {
+        // Given
+        List<Event> events = generateSearchEvents(40);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/search")
+                        .param("keyword", "SPRING")
+                        .param("eventStatus", "PUBLISHED")
+                        .param("offline", "true")
+                        .param("minPrice", "100")
+                        .param("maxPrice", "400")
+                        .param("eventFrom", "2022-09-05T00:00:00")
+                        .param("eventTo", "2022-09-30T00:00:00")
+                        .param("page", "0")
+                        .param("size", "5")
+                        .param("sort", "id,ASC")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page").exists())
+                .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("search-events",
+                        requestParameters(
+                                parameterWithName("keyword").description("text contained in name or description (case insensitive)"),
+                                parameterWithName("eventStatus").description("status of event"),
+                                parameterWithName("free").description("free event or not").optional(),
+                                parameterWithName("offline").description("offline event or not"),
+                                parameterWithName("minPrice").description("minimum base price"),
+                                parameterWithName("maxPrice").description("maximum base price"),
+                                parameterWithName("enrollmentFrom").description("enrollment period overlaps from this date time").optional(),
+                                parameterWithName("enrollmentTo").description("enrollment period overlaps until this date time").optional(),
+                                parameterWithName("eventFrom").description("event period overlaps from this date time"),
+                                parameterWithName("eventTo").description("event period overlaps until this date time"),
+                                parameterWithName("page").description("page number (starts from 0)"),
+                                parameterWithName("size").description("page size"),
+                                parameterWithName("sort").description("sort property and direction")
+                        )
+                ))
+        ;
+
+        // 조건별 검색 결과와 같은 조건으로 직접 거른 결과 비교
+        assertSearch(events, EventSearchCondition.builder().keyword("spring").build());
+        assertSearch(events, EventSearchCondition.builder().keyword("JPA").eventStatus(EventStatus.DRAFT).build());
+        assertSearch(events, EventSearchCondition.builder().free(true).build());
+        assertSearch(events, EventSearchCondition.builder().offline(false).minPrice(100).build());
+        assertSearch(events, EventSearchCondition.builder().minPrice(100).maxPrice(200).build());
+        assertSearch(events, EventSearchCondition.builder()
+                .enrollmentFrom(LocalDateTime.of(2022, 8, 10, 0, 0))
+                .enrollmentTo(LocalDateTime.of(2022, 8, 15, 0, 0))
+                .build());
+        assertSearch(events, EventSearchCondition.builder()
+                .keyword("event")
+                .eventStatus(EventStatus.PUBLISHED)
+                .offline(true)
+                .eventFrom(LocalDateTime.of(2022, 9, 5, 0, 0))
+                .eventTo(LocalDateTime.of(2022, 9, 20, 0, 0))
+                .build());
+    }
+
+    @Test
+    @DisplayName("Event 검색어의 %, _ 는 문자 그대로 검색하기")
+    public void searchEventsEscapeKeyword() throws Exception {
+        // Given
+        generateSearchEvents(5);
+        Event event = this.generateEvent(100);
+        event.setName("100% 할인_이벤트");
+        this.eventRepository.save(event);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/search").param("keyword", "0% 할인_"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(1))
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(event.getId()));
+    }
+
+    @Test
+    @DisplayName("Event 검색 조건이 잘못된 경우 400 응답받기")
+    public void searchEvents400() throws Exception {
+        this.mockMvc.perform(get("/api/events/search")
+                        .param("minPrice", "300")
+                        .param("maxPrice", "100"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].filed").value("maxPrice"))
+                .andExpect(jsonPath("_links.index").exists());
+
+        this.mockMvc.perform(get("/api/events/search")
+                        .param("minPrice", "-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].filed").value("minPrice"));
+    }
+
+    @Test
+    @DisplayName("Event index가 없는 property로 정렬해서 검색하는 경우 400 응답받기")
+    public void searchEventsWithUnsortableProperty400() throws Exception {
+        this.mockMvc.perform(get("/api/events/search")
+                        .param("keyword", "spring")
+                        .param("sort", "description,ASC")
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("wrongValue"))
+                .andExpect(jsonPath("_links.index").exists())
+        ;
+    }
+
+    @Test
+    @DisplayName("Event 최대 페이지 크기보다 크게 검색하는 경우 최대 크기로 조회하기")
+    public void searchEventsWithPageSizeOverMax() throws Exception {
+        // Given
+        List<Event> events = generateSearchEvents(3);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/search")
+                        .param("size", String.valueOf(appPropertices.getEventPageMaxSize() + 1))
+                        .param("sort", "basePrice,DESC")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.size").value(appPropertices.getEventPageMaxSize()))
+                .andExpect(jsonPath("page.totalElements").value(events.size()))
+        ;
+    }
+
+    private void assertSearch(List<Event> events, EventSearchCondition condition) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/events/search").param("size", "100");
+        if (condition.getKeyword() != null) request.param("keyword", condition.getKeyword());
+        if (condition.getEventStatus() != null) request.param("eventStatus", condition.getEventStatus().name());
+        if (condition.getFree() != null) request.param("free", condition.getFree().toString());
+        if (condition.getOffline() != null) request.param("offline", condition.getOffline().toString());
+        if (condition.getMinPrice() != null) request.param("minPrice", condition.getMinPrice().toString());
+        if (condition.getMaxPrice() != null) request.param("maxPrice", condition.getMaxPrice().toString());
+        if (condition.getEnrollmentFrom() != null) request.param("enrollmentFrom", condition.getEnrollmentFrom().toString());
+        if (condition.getEnrollmentTo() != null) request.param("enrollmentTo", condition.getEnrollmentTo().toString());
+        if (condition.getEventFrom() != null) request.param("eventFrom", condition.getEventFrom().toString());
+        if (condition.getEventTo() != null) request.param("eventTo", condition.getEventTo().toString());
+
+        String body = this.mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Set<Integer> ids = new LinkedHashSet<>();
+        objectMapper.readTree(body).path("_embedded").path("eventList").forEach(e -> ids.add(e.get("id").asInt()));
+
+        Set<Integer> expected = events.stream()
+                .filter(e -> condition.getKeyword() == null
+                        || e.getName().toLowerCase().contains(condition.getKeyword().toLowerCase())
+                        || e.getDescription().toLowerCase().contains(condition.getKeyword().toLowerCase()))
+                .filter(e -> condition.getEventStatus() == null || e.getEventStatus() == condition.getEventStatus())
+                .filter(e -> condition.getFree() == null || e.isFree() == condition.getFree())
+                .filter(e -> condition.getOffline() == null || e.isOffline() == condition.getOffline())
+                .filter(e -> condition.getMinPrice() == null || e.getBasePrice() >= condition.getMinPrice())
+                .filter(e -> condition.getMaxPrice() == null || e.getBasePrice() <= condition.getMaxPrice())
+                .filter(e -> condition.getEnrollmentTo() == null || !e.getBeginEnrollmentDateTime().isAfter(condition.getEnrollmentTo()))
+                .filter(e -> condition.getEnrollmentFrom() == null || !e.getCloseEnrollmentDateTime().isBefore(condition.getEnrollmentFrom()))
+                .filter(e -> condition.getEventTo() == null || !e.getBeginEventDateTime().isAfter(condition.getEventTo()))
+                .filter(e -> condition.getEventFrom() == null || !e.getEndEventDateTime().isBefore(condition.getEventFrom()))
+                .map(Event::getId)
+                .collect(Collectors.toSet());
+
+        assertThat(condition + " expected=" + expected + " actual=" + ids, !expected.isEmpty() && ids.equals(expected));
+    }
+
+    /**
+     * 검색 테스트용 이벤트 생성
+     * 이름, 상태, 가격, 장소, 기간을 순번에 따라 다르게 생성
+     */
+    private List<Event> generateSearchEvents(int count) {
+        saveAccout();
+        AccountAdapter accountAdapter = (AccountAdapter) this.accountService.loadUserByUsername(appPropertices.getUserUsername());
+        EventStatus[] statuses = EventStatus.values();
+
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime beginEnrollment = LocalDateTime.of(2022, 8, 1, 0, 0).plusDays(i);
+            Event event = Event.builder()
+                    .name((i % 2 == 0 ? "Spring event " : "JPA event ") + i)
+                    .description(i % 3 == 0 ? "spring boot rest api" : "test event")
+                    .beginEnrollmentDateTime(beginEnrollment)
+                    .closeEnrollmentDateTime(beginEnrollment.plusDays(3))
+                    .beginEventDateTime(beginEnrollment.plusDays(5))
+                    .endEventDateTime(beginEnrollment.plusDays(7))
+                    .basePrice((i % 5) * 100)
+                    .maxPrice(i % 5 == 0 ? 0 : (i % 5) * 100 + 100)
+                    .limitOfEnrollment(100)
+                    .location(i % 4 == 0 ? null : "군포시")
+                    .eventStatus(statuses[i % statuses.length])
+                    .manager(accountAdapter.getAccount())
+                    .build();
+            event.update();
+            events.add(this.eventRepository.save(event));
+        }
+        return events;
+    }
+
+    @Test
+    @DisplayName("Event 목록, 단건 조회 시 manager를 조회하는 쿼리가 실행되지 않는 테스트")
+    public void queryEventsStatementCount() throws Exception {
+
+        saveAccout();
+
+        // Given : manager가 다른 이벤트 20개
+        IntStream.range(0, 10).forEach(this::generateEvent);
+        IntStream.range(10, 20).forEach(i -> this.generateEvent(i, appPropertices.getAdminUsername()));
+        Event event = this.generateEvent(100);
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // When & Then : event 조회 + count 조회
+        statistics.clear();
+        this.mockMvc.perform(get("/api/events").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].manager.id").exists());
+        assertThat("list statements=" + statistics.getPrepareStatementCount(), statistics.getPrepareStatementCount() == 2);
+
+        // When & Then : event 조회
+        statistics.clear();
+        this.mockMvc.perform(get("/api/events/slice").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].manager.id").exists());
+        assertThat("slice statements=" + statistics.getPrepareStatementCount(), statistics.getPrepareStatementCount() == 1);
+
+        statistics.clear();
+        this.mockMvc.perform(get("/api/events/cursor").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].manager.id").exists());
+        assertThat("cursor statements=" + statistics.getPrepareStatementCount(), statistics.getPrepareStatementCount() == 1);
+
+        statistics.clear();
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("manager.id").exists());
+        assertThat("get statements=" + statistics.getPrepareStatementCount(), statistics.getPrepareStatementCount() == 1);
+    }
+
+    @Test
+    @DisplayName("Event 전체 이벤트를 NDJSON으로 내보내기")
+    public void exportEvents() throws Exception {
+
+        saveAccout();
+
+        // Given : user 이벤트 15개(이 중 5개 PUBLISHED), admin 이벤트 5개
+        List<Event> events = IntStream.range(0, 15).mapToObj(this::generateEvent).collect(Collectors.toList());
+        events.subList(0, 5).forEach(e -> {
+            e.setEventStatus(EventStatus.PUBLISHED);
+            this.eventRepository.save(e);
+        });
+        IntStream.range(15, 20).forEach(i -> this.generateEvent(i, appPropertices.getAdminUsername()));
+
+        // When & Then : 전체
+        List<JsonNode> all = exportLines(get("/api/events/export"), "export-events");
+        assertThat("all=" + all.size(), all.size() == 20);
+        assertThat("ordered", all.get(0).get("id").asInt() < all.get(19).get("id").asInt());
+        assertThat("manager", all.get(0).path("manager").path("id").isInt());
+
+        // When & Then : 상태, 생성자 필터
+        Integer managerId = events.get(0).getManager().getId();
+        assertThat(exportLines(get("/api/events/export").param("eventStatus", "PUBLISHED"), null).size(), is(5));
+        assertThat(exportLines(get("/api/events/export").param("manager", managerId.toString()), null).size(), is(15));
+        assertThat(exportLines(get("/api/events/export")
+                .param("eventStatus", "DRAFT")
+                .param("manager", managerId.toString()), null).size(), is(10));
+    }
+
+    private List<JsonNode> exportLines(MockHttpServletRequestBuilder requestBuilder, String snippet) throws Exception {
+        MvcResult mvcResult = this.mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // 내보내기 요청만 비동기 timeout 없음
+        assertThat(mvcResult.getRequest().getAsyncContext().getTimeout(), is(-1L));
+        ResultActions resultActions = this.mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"));
+        if (snippet != null) {
+            resultActions.andDo(document(snippet,
+                    requestParameters(
+                            parameterWithName("eventStatus").description("status of events to export").optional(),
+                            parameterWithName("manager").description("id of the manager of events to export").optional()
+                    )
+            ));
+        }
+
+        // 한 줄에 이벤트 하나 (앞뒤 공백 없이 JSON과 줄바꿈만)
+        String content = resultActions.andReturn().getResponse().getContentAsString();
+        List<JsonNode> lines = new ArrayList<>();
+        StringBuilder expected = new StringBuilder();
+        for (String line : content.split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            lines.add(node);
+            expected.append(objectMapper.writeValueAsString(node)).append('\n');
+        }
+        assertThat(content, is(expected.toString()));
+        return lines;
+    }
+
     @Test
     @DisplayName("Event 하나 조회하기")
     public void getEvent() throws Exception {
@@ -621,6 +1325,186 @@ public class EventControllerTests extends BaseTest {
 
     }
 
+    @Test
+    @DisplayName("Event 조회 결과를 캐시하고, 수정한 내용은 바로 조회되는 테스트")
+    public void getEventCachedAndUpdated() throws Exception {
+
+        saveAccout();
+
+        // Given
+        Event event = this.generateEvent(200);
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk());
+
+        // When & Then : 두번째 조회는 캐시에서 조회
+        statistics.clear();
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value(event.getName()));
+        assertThat("cached statements=" + statistics.getPrepareStatementCount(), statistics.getPrepareStatementCount() == 0);
+
+        // When & Then : 수정 후 조회
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        String eventName = "Updated Event";
+        eventDto.setName(eventName);
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.AUTHORIZATION, getBearerToken(appPropertices.getUserUsername()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk());
+
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value(eventName));
+    }
+
+    @Test
+    @DisplayName("Event 캐시에 없는 이벤트를 동시에 조회해도 쿼리는 한번만 실행되는 테스트")
+    public void getEventConcurrentMiss() throws Exception {
+
+        saveAccout();
+
+        // Given
+        Event event = this.generateEvent(300);
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        statistics.clear();
+        List<Future<Optional<Event>>> results = IntStream.range(0, 16)
+                .mapToObj(i -> executor.submit(() -> {
+                    start.await();
+                    return this.eventCache.findById(event.getId());
+                }))
+                .collect(Collectors.toList());
+        start.countDown();
+
+        // Then
+        for (Future<Optional<Event>> result : results) {
+            assertThat("found", result.get(10, TimeUnit.SECONDS).isPresent());
+        }
+        assertThat("statements=" + statistics.getPrepareStatementCount(), statistics.getPrepareStatementCount() == 1);
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Event 변경되지 않은 이벤트를 If-None-Match로 조회하면 304 응답받기")
+    public void getEventNotModified() throws Exception {
+
+        saveAccout();
+
+        // Given
+        Event event = this.generateEvent(400);
+        String eTag = this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        // 인증정보에 따라 응답(update-event link)이 다르므로 ETag도 다름
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.AUTHORIZATION, getBearerToken(appPropertices.getUserUsername()))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_links.update-event").exists());
+    }
+
+    @Test
+    @DisplayName("Event 변경되지 않은 목록을 If-None-Match로 조회하면 304 응답받기")
+    public void queryEventsNotModified() throws Exception {
+
+        saveAccout();
+
+        // Given
+        IntStream.range(0, 15).forEach(this::generateEvent);
+        String eTag = this.mockMvc.perform(get("/api/events").param("size", "10"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events").param("size", "10")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // 이벤트가 추가되면 전체 건수가 달라지므로 다시 조회
+        this.generateEvent(15);
+        this.mockMvc.perform(get("/api/events").param("size", "10")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    @DisplayName("Event 목록의 ETag를 page, size가 다른 요청에 보내면 200 응답받기")
+    public void queryEventsNotModified_otherPage() throws Exception {
+
+        saveAccout();
+
+        // Given
+        IntStream.range(0, 30).forEach(this::generateEvent);
+        String eTag = this.mockMvc.perform(get("/api/events").param("size", "30"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        // 같은 이벤트 목록이라도 link(self, next, prev 등)가 다름
+        this.mockMvc.perform(get("/api/events").param("size", "30").param("page", "0")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+        this.mockMvc.perform(get("/api/events").param("size", "50")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    @DisplayName("Event 다른 사용자가 먼저 수정한 이벤트를 If-Match로 수정하면 412 응답받기")
+    public void updateEventPreconditionFailed() throws Exception {
+
+        saveAccout();
+
+        // Given
+        Event event = this.generateEvent(500);
+        String bearerToken = getBearerToken(appPropertices.getUserUsername());
+        String eTag = this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+
+        // When & Then : 조회한 version으로 수정
+        eventDto.setName("first update");
+        String updatedETag = this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat("updated eTag=" + updatedETag, !eTag.equals(updatedETag));
+
+        // When & Then : 이전 version으로 다시 수정
+        eventDto.setName("second update");
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @DisplayName("Event 권한없는 이벤트 수정하기")
     public void updateEvent403_Wrong() throws Exception {
@@ -702,10 +1586,14 @@ public class EventControllerTests extends BaseTest {
     }
 
     public Event generateEvent(int index) {
+        return generateEvent(index, appPropertices.getUserUsername());
+    }
+
+    public Event generateEvent(int index, String managerName) {
 
         saveAccout();
 
-        AccountAdapter accountAdapter = (AccountAdapter) this.accountService.loadUserByUsername(appPropertices.getUserUsername());
+        AccountAdapter accountAdapter = (AccountAdapter) this.accountService.loadUserByUsername(managerName);
 
         Event event = Event.builder()
                 .name("event" + index)
@@ -0,0 +1,59 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+class EventLinksTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("캐시한 base URI로 만든 link가 linkTo로 만든 link와 같은 테스트")
+    public void links() {
+        // Given
+        bindRequest("localhost", 8080);
+
+        // When & Then
+        assertThat(EventLinks.self(1)).isEqualTo(linkTo(EventController.class).slash(1).withSelfRel());
+        assertThat(EventLinks.updateEvent(1)).isEqualTo(linkTo(EventController.class).slash(1).withRel("update-event"));
+        assertThat(EventLinks.queryEvents()).isEqualTo(linkTo(EventController.class).withRel("query-events"));
+        assertThat(EventLinks.createEvent()).isEqualTo(linkTo(EventController.class).withRel("create-event"));
+        assertThat(EventLinks.profile("resources-events-get"))
+                .isEqualTo(Link.of("/docs/index.html#resources-events-get").withRel("profile"));
+        assertThat(EventLinks.self(1).getRel()).isEqualTo(IanaLinkRelations.SELF);
+    }
+
+    @Test
+    @DisplayName("base URI는 요청마다 한번만 계산하는 테스트")
+    public void baseUri_perRequest() {
+        // Given
+        bindRequest("localhost", 8080);
+
+        // When
+        String baseUri = EventLinks.baseUri();
+
+        // Then : 같은 요청에서는 같은 값을 재사용, 다른 요청에서는 다시 계산
+        assertThat(EventLinks.baseUri()).isSameAs(baseUri);
+        bindRequest("example.com", 80);
+        assertThat(EventLinks.baseUri()).isEqualTo("http://example.com/api/events");
+    }
+
+    private static void bindRequest(String serverName, int port) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName(serverName);
+        request.setServerPort(port);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,104 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import com.jonghak.springbootrestapiinit.accounts.Account;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EventMapper와 ModelMapper(+ Event.update) 결과 비교
+ * EventDto, Event에 필드가 추가되었는데 EventMapper에 반영하지 않으면 실패한다.
+ */
+class EventMapperTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private final EventMapper eventMapper = new EventMapper();
+
+    private static Stream<EventDto> eventDtos() {
+        LocalDateTime dateTime = LocalDateTime.of(2022, 8, 28, 0, 0, 0);
+        return Stream.of(
+                eventDto(dateTime, "군포시", 100, 200),
+                eventDto(dateTime, null, 0, 0),
+                eventDto(dateTime, "   ", 0, 100),
+                eventDto(dateTime, "", 100, 0),
+                eventDto(null, null, 0, 0),
+                EventDto.builder().build()
+        );
+    }
+
+    private static EventDto eventDto(LocalDateTime dateTime, String location, int basePrice, int maxPrice) {
+        return EventDto.builder()
+                .name("Spring")
+                .description("Rest API")
+                .beginEnrollmentDateTime(dateTime)
+                .closeEnrollmentDateTime(dateTime == null ? null : dateTime.plusDays(1))
+                .beginEventDateTime(dateTime == null ? null : dateTime.plusDays(2))
+                .endEventDateTime(dateTime == null ? null : dateTime.plusDays(3))
+                .location(location)
+                .basePrice(basePrice)
+                .maxPrice(maxPrice)
+                .limitOfEnrollment(100)
+                .build();
+    }
+
+    @ParameterizedTest
+    @MethodSource("eventDtos")
+    @DisplayName("EventDto로 새 이벤트를 만든 결과가 ModelMapper와 같은 테스트")
+    public void toEvent(EventDto eventDto) {
+        // When
+        Event expected = modelMapper.map(eventDto, Event.class);
+        expected.update();
+        Event actual = eventMapper.toEvent(eventDto);
+
+        // Then
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("eventDtos")
+    @DisplayName("EventDto로 기존 이벤트를 수정한 결과가 ModelMapper와 같은 테스트")
+    public void update(EventDto eventDto) {
+        // Given
+        Event expected = existingEvent();
+        Event actual = existingEvent();
+
+        // When
+        modelMapper.map(eventDto, expected);
+        expected.update();
+        eventMapper.update(eventDto, actual);
+
+        // Then
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(actual.getId()).isEqualTo(10);
+        assertThat(actual.getEventStatus()).isEqualTo(EventStatus.PUBLISHED);
+        assertThat(actual.getVersion()).isEqualTo(3);
+    }
+
+    private static Event existingEvent() {
+        return Event.builder()
+                .id(10)
+                .name("old")
+                .description("old event")
+                .beginEnrollmentDateTime(LocalDateTime.of(2021, 1, 1, 0, 0, 0))
+                .closeEnrollmentDateTime(LocalDateTime.of(2021, 1, 2, 0, 0, 0))
+                .beginEventDateTime(LocalDateTime.of(2021, 1, 3, 0, 0, 0))
+                .endEventDateTime(LocalDateTime.of(2021, 1, 4, 0, 0, 0))
+                .location("서울")
+                .basePrice(1000)
+                .maxPrice(2000)
+                .limitOfEnrollment(10)
+                .offline(true)
+                .free(false)
+                .eventStatus(EventStatus.PUBLISHED)
+                .manager(Account.builder().id(1).email("user@email.com").build())
+                .version(3)
+                .build();
+    }
+}
@@ -0,0 +1,387 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EventRepository 조회의 PostgreSQL 실행 계획 테스트
+ * Flyway migration으로 만든 DB(embedded PostgreSQL)에 이벤트를 넣고, 각 조회에서 Hibernate가 만든 SQL을 EXPLAIN 해서
+ * 각 조회가 예상한 index를 사용하고, event 테이블 전체를 읽는 조회(Seq Scan, index 조건 없이 Filter로만 거르는 scan)가 없는지 확인한다.
+ * embedded PostgreSQL을 시작할 수 없으면 실패 (실행 계획 회귀 검사가 조용히 빠지지 않도록)
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQL10Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.jonghak.springbootrestapiinit.events.EventRepositoryExplainTest$SqlCapture"
+})
+@ActiveProfiles("test")
+class EventRepositoryExplainTest {
+
+    private static final int EVENTS = 50_000;
+
+    private static final int MANAGERS = 100;
+
+    // 이벤트 시작 시각 (이벤트별로 10분씩 증가)
+    private static final LocalDateTime START = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    private static final Log logger = LogFactory.getLog(EventRepositoryExplainTest.class);
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EventSortPolicy eventSortPolicy;
+
+    @Autowired
+    EventCountEstimator eventCountEstimator;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        if (postgres == null) {
+            postgres = EmbeddedPostgres.start();
+        }
+        String url = postgres.getJdbcUrl("postgres", "postgres");
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.hikari.jdbc-url", () -> url);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+            postgres = null;
+        }
+    }
+
+    @BeforeAll
+    static void clearCapturedSql() {
+        SqlCapture.clear();
+    }
+
+    /**
+     * 실행 계획이 실제 운영과 비슷하도록 이벤트 EVENTS건, 생성자 MANAGERS명 추가 후 통계 갱신
+     * free, offline은 각각 10%, 상태는 3가지, 생성자는 고르게 분포
+     */
+    private void insertEvents() {
+        if (jdbcTemplate.queryForObject("SELECT count(*) FROM event", Integer.class) >= EVENTS) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO account (id, email, password, roles) " +
+                "SELECT g, 'manager' || g || '@email.com', 'password', 2 FROM generate_series(100001, 100000 + ?) g", MANAGERS);
+        jdbcTemplate.update("INSERT INTO event (id, name, description, " +
+                "begin_enrollment_date_time, close_enrollment_date_time, begin_event_date_time, end_event_date_time, " +
+                "location, base_price, max_price, limit_of_enrollment, offline, free, event_status, manager_id, version) " +
+                "SELECT g, 'event ' || g, 'description ' || md5(g::text), " +
+                "?::timestamp + g * interval '10 minutes', ?::timestamp + g * interval '10 minutes' + interval '1 day', " +
+                "?::timestamp + g * interval '10 minutes' + interval '2 days', ?::timestamp + g * interval '10 minutes' + interval '3 days', " +
+                "CASE WHEN g % 10 = 0 THEN 'location' END, CASE WHEN g % 10 = 1 THEN 0 ELSE g % 1000 + 1 END, 2000, 100, " +
+                "g % 10 = 0, g % 10 = 1, (ARRAY['DRAFT', 'PUBLISHED', 'BEGAN_ENROLLMENT'])[g % 3 + 1], 100001 + g % ?, 0 " +
+                "FROM generate_series(1, ?) g",
+                START, START, START, START, MANAGERS, EVENTS);
+        // 한번에 추가한 행은 GIN(trigram) index의 pending list에 남아 index 비용이 크게 계산되므로 VACUUM으로 반영
+        jdbcTemplate.execute("VACUUM ANALYZE account");
+        jdbcTemplate.execute("VACUUM ANALYZE event");
+    }
+
+    private static PageRequest page(int size, Sort sort) {
+        return PageRequest.of(0, size, sort);
+    }
+
+    private static EventSearchCondition condition() {
+        return new EventSearchCondition();
+    }
+
+    @Test
+    @DisplayName("EventRepository 조회가 예상한 index를 사용하고 event 테이블 전체를 읽지 않는 테스트")
+    public void explain() {
+        // Given
+        insertEvents();
+        LocalDateTime cursor = START.plusDays(100);
+        Sort enrollmentOrder = Sort.by("beginEnrollmentDateTime", "id");
+
+        EventSearchCondition status = condition();
+        status.setEventStatus(EventStatus.PUBLISHED);
+        status.setEventFrom(START.plusDays(3));
+        status.setEventTo(START.plusDays(4));
+
+        EventSearchCondition free = condition();
+        free.setFree(true);
+
+        EventSearchCondition offline = condition();
+        offline.setOffline(true);
+
+        EventSearchCondition keyword = condition();
+        keyword.setKeyword("event 4242");
+
+        List<QueryCase> cases = List.of(
+                new QueryCase("findById", "event_pkey", () -> eventRepository.findById(42), 42),
+                new QueryCase("findSliceBy", "event_pkey", () -> eventRepository.findSliceBy(page(20, Sort.by("id"))), 21),
+                new QueryCase("findAllByOrderByBeginEnrollmentDateTimeAscIdAsc", "event_begin_enrollment_id_idx",
+                        () -> eventRepository.findAllByOrderByBeginEnrollmentDateTimeAscIdAsc(PageRequest.of(0, 21)), 21),
+                new QueryCase("findAllAfter", "event_begin_enrollment_id_idx",
+                        () -> eventRepository.findAllAfter(cursor, 14400, PageRequest.of(0, 21)),
+                        cursor, cursor, 14400, 21),
+                new QueryCase("findAllBefore", "event_begin_enrollment_id_idx",
+                        () -> eventRepository.findAllBefore(cursor, 14400, PageRequest.of(0, 21)),
+                        cursor, cursor, 14400, 21),
+                // Criteria API의 숫자 조건(managerId)은 SQL에 값이 그대로 들어감
+                new QueryCase("streamAll(eventStatus, managerId)", "event_manager_id_idx",
+                        () -> streamAll(EventStatus.PUBLISHED, 100042),
+                        EventStatus.PUBLISHED.name()),
+                new QueryCase("findAll(eventStatus, event period)", "event_event_status_begin_event_idx",
+                        () -> eventRepository.findAll(EventSpecs.search(status), page(20, Sort.by("beginEventDateTime"))),
+                        EventStatus.PUBLISHED.name(), status.getEventTo(), status.getEventFrom(), 20),
+                new QueryCase("findAll(free)", "event_free_begin_enrollment_id_idx",
+                        () -> eventRepository.findAll(EventSpecs.search(free), page(20, enrollmentOrder)), true, 20),
+                new QueryCase("findAll(offline)", "event_offline_begin_enrollment_id_idx",
+                        () -> eventRepository.findAll(EventSpecs.search(offline), page(20, enrollmentOrder)), true, 20),
+                new QueryCase("findAll(keyword)", "event_name_trgm_idx",
+                        () -> eventRepository.findAll(EventSpecs.search(keyword), page(20, Sort.by("id"))),
+                        "%event 4242%", "\\", "%event 4242%", "\\", 20)
+        );
+
+        // When
+        Map<String, String> notIndexed = new LinkedHashMap<>();
+        for (QueryCase queryCase : cases) {
+            String plan = explain(queryCase);
+            if (!usesIndex(plan, queryCase.index) || !fullScans(plan).isEmpty()) {
+                notIndexed.put(queryCase.name, plan);
+            }
+        }
+
+        // Then
+        assertThat(notIndexed).as("queries not using the expected index or reading the whole event table").isEmpty();
+    }
+
+    @Test
+    @DisplayName("이벤트 목록 조회의 정렬 가능한 property(EventSortPolicy)는 정렬 없이 index 순서로 읽는 테스트")
+    public void explainSortableProperties() {
+        // Given
+        insertEvents();
+
+        // When
+        Map<String, String> notIndexOrdered = new LinkedHashMap<>();
+        EventSortPolicy.SORTABLE_PROPERTIES.forEach((property, index) -> {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                Errors errors = new MapBindingResult(new HashMap<>(), "pageable");
+                Pageable pageable = eventSortPolicy.apply(page(20, Sort.by(direction, property)), errors);
+                assertThat(errors.hasErrors()).as(property).isFalse();
+
+                QueryCase queryCase = new QueryCase("findAll(" + pageable.getSort() + ")", index,
+                        () -> eventRepository.findAll(pageable), 20);
+                String plan = explain(queryCase);
+                if (!plan.contains("Index Scan") || !usesIndex(plan, index) || plan.contains("Sort Key")) {
+                    notIndexOrdered.put(queryCase.name, plan);
+                }
+            }
+        });
+
+        // Then
+        assertThat(notIndexOrdered).as("sorts not read in index order").isEmpty();
+    }
+
+    @Test
+    @DisplayName("커서 조회는 커서 위치가 뒤쪽이어도 index 범위 조건으로 커서 이전 row를 읽지 않는 테스트")
+    public void explainDeepCursor() {
+        // Given
+        insertEvents();
+        int deepId = EVENTS - 100;
+        LocalDateTime deepCursor = START.plusMinutes(10L * deepId);
+        int shallowId = 100;
+        LocalDateTime shallowCursor = START.plusMinutes(10L * shallowId);
+
+        List<QueryCase> cases = List.of(
+                new QueryCase("findAllAfter(deep cursor)", "event_begin_enrollment_id_idx",
+                        () -> eventRepository.findAllAfter(deepCursor, deepId, PageRequest.of(0, 21)),
+                        deepCursor, deepCursor, deepId, 21),
+                // 역순으로 읽으므로 앞쪽 커서가 깊은 위치
+                new QueryCase("findAllBefore(deep cursor)", "event_begin_enrollment_id_idx",
+                        () -> eventRepository.findAllBefore(shallowCursor, shallowId, PageRequest.of(0, 21)),
+                        shallowCursor, shallowCursor, shallowId, 21)
+        );
+
+        // When
+        Map<String, String> notIndexRange = new LinkedHashMap<>();
+        for (QueryCase queryCase : cases) {
+            String plan = explain(queryCase);
+            if (!usesIndex(plan, queryCase.index) || !plan.contains("Index Cond: (begin_enrollment_date_time")) {
+                notIndexRange.put(queryCase.name, plan);
+            }
+        }
+
+        // Then
+        assertThat(notIndexRange).as("cursor queries without an index range condition").isEmpty();
+    }
+
+    @Test
+    @DisplayName("다른 schema에 같은 이름의 event 테이블이 있어도 통계 정보로 이벤트 건수를 추정하는 테스트")
+    public void estimateCountWithOtherSchema() {
+        // Given
+        insertEvents();
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS archive");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS archive.event (id integer primary key)");
+        jdbcTemplate.execute("ANALYZE archive.event");
+
+        // When
+        long estimate = eventCountEstimator.estimate();
+
+        // Then
+        assertThat(estimate).isBetween(EVENTS * 9L / 10, EVENTS * 11L / 10);
+    }
+
+    private int streamAll(EventStatus eventStatus, Integer managerId) {
+        return transactionTemplate.execute(transaction -> {
+            try (Stream<Event> events = eventRepository.streamAll(eventStatus, managerId)) {
+                return (int) events.limit(1).count();
+            }
+        });
+    }
+
+    /**
+     * 조회를 실행해서 얻은 SQL의 실행 계획
+     */
+    private String explain(QueryCase queryCase) {
+        String sql = queryCase.captureSql();
+        assertThat(sql.chars().filter(c -> c == '?').count())
+                .as("parameters of " + sql)
+                .isEqualTo(queryCase.parameters.length);
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, queryCase.parameters));
+        logger.info("-- " + queryCase.name + "\n" + sql + "\n" + plan);
+        return plan;
+    }
+
+    /**
+     * index를 사용하는 scan이 있는지 (Index Scan, Index Only Scan, Bitmap Index Scan)
+     */
+    private static boolean usesIndex(String plan, String index) {
+        return plan.contains("using " + index + " on event") || plan.contains("Bitmap Index Scan on " + index + " ");
+    }
+
+    /**
+     * event 테이블 전체를 읽는 scan
+     * Seq Scan, 또는 index 조건(Index Cond, Recheck Cond) 없이 Filter로만 거르는 scan (index 순서로 전체를 읽으면서 거름)
+     * @return scan 이름
+     */
+    private static List<String> fullScans(String plan) {
+        List<String> fullScans = new ArrayList<>();
+        String[] lines = plan.split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            String node = lines[i].replaceFirst("^\\s*(->\\s+)?", "");
+            if (!node.matches(".*Scan.* on event .*")) {
+                continue;
+            }
+            // node의 조건 (다음 node("->") 전까지)
+            boolean filter = false;
+            boolean indexCondition = false;
+            for (int j = i + 1; j < lines.length && !lines[j].trim().startsWith("->"); j++) {
+                String detail = lines[j].trim();
+                filter |= detail.startsWith("Filter:");
+                indexCondition |= detail.startsWith("Index Cond:") || detail.startsWith("Recheck Cond:");
+            }
+            if (node.startsWith("Seq Scan") || (filter && !indexCondition)) {
+                fullScans.add(node);
+            }
+        }
+        return fullScans;
+    }
+
+    private class QueryCase {
+
+        private final String name;
+
+        // 사용해야 하는 index
+        private final String index;
+
+        private final Runnable query;
+
+        private final Object[] parameters;
+
+        QueryCase(String name, String index, Runnable query, Object... parameters) {
+            this.name = name;
+            this.index = index;
+            this.query = query;
+            this.parameters = parameters;
+        }
+
+        /**
+         * 조회를 실행하고 Hibernate가 만든 event 조회 SQL (count 조회 제외)
+         */
+        String captureSql() {
+            SqlCapture.clear();
+            query.run();
+            List<String> selects = SqlCapture.statements().stream()
+                    .filter(sql -> sql.startsWith("select") && sql.contains(" from event ") && !sql.startsWith("select count("))
+                    .collect(Collectors.toList());
+            assertThat(selects).as(name).hasSize(1);
+            return selects.get(0);
+        }
+    }
+
+    /**
+     * Hibernate가 실행하는 SQL 기록
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql.replaceAll("\\s+", " ").trim());
+            }
+            return sql;
+        }
+
+        static List<String> statements() {
+            synchronized (STATEMENTS) {
+                return new ArrayList<>(STATEMENTS);
+            }
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+    }
+}
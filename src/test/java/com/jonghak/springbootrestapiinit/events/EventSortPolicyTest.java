@@ -0,0 +1,80 @@
+package com.jonghak.springbootrestapiinit.events;
+
+import com.jonghak.springbootrestapiinit.configs.AppPropertices;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventSortPolicyTest {
+
+    private final EventSortPolicy eventSortPolicy = new EventSortPolicy(new AppPropertices());
+
+    @Test
+    @DisplayName("정렬 조건 마지막에 같은 방향의 id를 추가하는 테스트")
+    public void appendIdTiebreaker() {
+        // Given
+        Errors errors = errors();
+
+        // When
+        Pageable pageable = eventSortPolicy.apply(PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "basePrice")), errors);
+
+        // Then
+        assertThat(errors.hasErrors()).isFalse();
+        assertThat(pageable.getPageNumber()).isEqualTo(2);
+        assertThat(pageable.getPageSize()).isEqualTo(10);
+        assertThat(pageable.getSort()).isEqualTo(Sort.by(Sort.Direction.DESC, "basePrice", "id"));
+    }
+
+    @Test
+    @DisplayName("정렬하지 않거나 id로 정렬하면 id로만 정렬하는 테스트")
+    public void sortById() {
+        assertThat(eventSortPolicy.apply(PageRequest.of(0, 10), errors()).getSort())
+                .isEqualTo(Sort.by("id"));
+        assertThat(eventSortPolicy.apply(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")), errors()).getSort())
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "id"));
+        assertThat(eventSortPolicy.apply(PageRequest.of(0, 10, Sort.by("beginEnrollmentDateTime", "id")), errors()).getSort())
+                .isEqualTo(Sort.by("beginEnrollmentDateTime", "id"));
+    }
+
+    @Test
+    @DisplayName("index로 읽을 수 없는 정렬은 에러로 추가하는 테스트")
+    public void rejectUnsortable() {
+        assertRejected(Sort.by("description"));
+        assertRejected(Sort.by(Sort.Order.asc("basePrice").ignoreCase()));
+        assertRejected(Sort.by("basePrice", "beginEventDateTime"));
+        assertRejected(Sort.by(Sort.Order.asc("basePrice"), Sort.Order.desc("id")));
+        assertRejected(Sort.by("id", "basePrice"));
+    }
+
+    @Test
+    @DisplayName("최대 페이지 크기보다 큰 페이지는 최대 크기로 제한하는 테스트")
+    public void capPageSize() {
+        // Given
+        AppPropertices appPropertices = new AppPropertices();
+        appPropertices.setEventPageMaxSize(50);
+        EventSortPolicy policy = new EventSortPolicy(appPropertices);
+
+        // When & Then
+        assertThat(policy.apply(PageRequest.of(0, 51), errors()).getPageSize()).isEqualTo(50);
+        assertThat(policy.apply(PageRequest.of(0, 20), errors()).getPageSize()).isEqualTo(20);
+    }
+
+    private void assertRejected(Sort sort) {
+        Errors errors = errors();
+        assertThat(eventSortPolicy.apply(PageRequest.of(0, 10, sort), errors)).as(sort.toString()).isNull();
+        assertThat(errors.getGlobalErrors()).as(sort.toString()).hasSize(1);
+        assertThat(errors.getGlobalError().getCode()).isEqualTo("wrongValue");
+    }
+
+    private static Errors errors() {
+        return new MapBindingResult(new HashMap<>(), "pageable");
+    }
+}
@@ -0,0 +1,150 @@
+package com.jonghak.springbootrestapiinit.tokens;
+
+import com.jonghak.springbootrestapiinit.configs.AppPropertices;
+import com.jonghak.springbootrestapiinit.configs.TokenStoreProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class BoundedInMemoryTokenStoreTest {
+
+    private static final String CLIENT_ID = "myApp";
+
+    @SuppressWarnings("unchecked")
+    private BoundedInMemoryTokenStore tokenStore(long maximumSize) {
+        TokenStoreProperties properties = new TokenStoreProperties();
+        properties.setMaximumSize(maximumSize);
+        return new BoundedInMemoryTokenStore(properties, new AppPropertices(), mock(ObjectProvider.class));
+    }
+
+    private OAuth2Authentication authentication(String username) {
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), CLIENT_ID,
+                AuthorityUtils.NO_AUTHORITIES, true, Set.of("read", "write"), null, null, null, null);
+        return new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private DefaultOAuth2AccessToken accessToken(String value, String refreshToken, long expiresInMillis) {
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(value);
+        token.setExpiration(new Date(System.currentTimeMillis() + expiresInMillis));
+        if (refreshToken != null) {
+            token.setRefreshToken(new DefaultExpiringOAuth2RefreshToken(refreshToken, new Date(System.currentTimeMillis() + 60_000)));
+        }
+        return token;
+    }
+
+    @Test
+    @DisplayName("저장한 access token을 token 값과 인증정보로 조회하는 테스트")
+    public void storeAccessToken() {
+        // Given
+        BoundedInMemoryTokenStore tokenStore = tokenStore(10);
+        OAuth2Authentication authentication = authentication("user@email.com");
+        DefaultOAuth2AccessToken token = accessToken("access", "refresh", 60_000);
+
+        // When
+        tokenStore.storeAccessToken(token, authentication);
+
+        // Then
+        assertThat(tokenStore.readAccessToken("access")).isEqualTo(token);
+        assertThat(tokenStore.readAuthentication("access")).isEqualTo(authentication);
+        assertThat(tokenStore.getAccessToken(authentication("user@email.com"))).isEqualTo(token);
+        assertThat(tokenStore.findTokensByClientIdAndUserName(CLIENT_ID, "user@email.com")).containsExactly(token);
+        assertThat(tokenStore.findTokensByClientId(CLIENT_ID)).containsExactly(token);
+        assertThat(tokenStore.getAccessToken(authentication("admin@email.com"))).isNull();
+    }
+
+    @Test
+    @DisplayName("최대 크기를 넘으면 token이 삭제되고 연결 정보도 함께 삭제되는 테스트")
+    public void storeAccessToken_maximumSize() {
+        // Given
+        BoundedInMemoryTokenStore tokenStore = tokenStore(10);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            tokenStore.storeAccessToken(accessToken("access" + i, "refresh" + i, 60_000), authentication("user" + i));
+        }
+        tokenStore.cleanUp();
+
+        // Then
+        assertThat(tokenStore.accessTokenCount()).isLessThanOrEqualTo(10);
+        long found = 0;
+        for (int i = 0; i < 100; i++) {
+            if (tokenStore.getAccessToken(authentication("user" + i)) != null) {
+                found++;
+            }
+        }
+        assertThat(found).isEqualTo(tokenStore.accessTokenCount());
+    }
+
+    @Test
+    @DisplayName("만료 시간이 지난 token은 조회되지 않는 테스트")
+    public void readAccessToken_expired() {
+        // Given
+        BoundedInMemoryTokenStore tokenStore = tokenStore(10);
+        OAuth2Authentication authentication = authentication("user@email.com");
+        tokenStore.storeAccessToken(accessToken("access", "refresh", -1_000), authentication);
+
+        // When
+        tokenStore.cleanUp();
+
+        // Then
+        assertThat(tokenStore.readAccessToken("access")).isNull();
+        assertThat(tokenStore.readAuthentication("access")).isNull();
+        assertThat(tokenStore.getAccessToken(authentication)).isNull();
+        assertThat(tokenStore.accessTokenCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("access token 삭제 시 인증정보로 조회되지 않는 테스트")
+    public void removeAccessToken() {
+        // Given
+        BoundedInMemoryTokenStore tokenStore = tokenStore(10);
+        OAuth2Authentication authentication = authentication("user@email.com");
+        DefaultOAuth2AccessToken token = accessToken("access", "refresh", 60_000);
+        tokenStore.storeAccessToken(token, authentication);
+
+        // When
+        tokenStore.removeAccessToken(token);
+
+        // Then
+        assertThat(tokenStore.readAccessToken("access")).isNull();
+        assertThat(tokenStore.getAccessToken(authentication)).isNull();
+    }
+
+    @Test
+    @DisplayName("refresh token으로 access token을 삭제하는 테스트")
+    public void removeAccessTokenUsingRefreshToken() {
+        // Given
+        BoundedInMemoryTokenStore tokenStore = tokenStore(10);
+        OAuth2Authentication authentication = authentication("user@email.com");
+        DefaultOAuth2AccessToken token = accessToken("access", "refresh", 60_000);
+        OAuth2RefreshToken refreshToken = token.getRefreshToken();
+        tokenStore.storeAccessToken(token, authentication);
+        tokenStore.storeRefreshToken(refreshToken, authentication);
+
+        // When
+        tokenStore.removeAccessTokenUsingRefreshToken(refreshToken);
+
+        // Then
+        assertThat(tokenStore.readAccessToken("access")).isNull();
+        assertThat(tokenStore.readRefreshToken("refresh")).isEqualTo(refreshToken);
+        assertThat(tokenStore.readAuthenticationForRefreshToken(refreshToken)).isEqualTo(authentication);
+
+        tokenStore.removeRefreshToken(refreshToken);
+        assertThat(tokenStore.readRefreshToken("refresh")).isNull();
+    }
+}
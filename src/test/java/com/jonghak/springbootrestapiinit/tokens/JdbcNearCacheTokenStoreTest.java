@@ -0,0 +1,439 @@
+package com.jonghak.springbootrestapiinit.tokens;
+
+import com.jonghak.springbootrestapiinit.accounts.Account;
+import com.jonghak.springbootrestapiinit.accounts.AccountAdapter;
+import com.jonghak.springbootrestapiinit.accounts.AccountRole;
+import com.jonghak.springbootrestapiinit.configs.TokenStoreProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.common.util.SerializationUtils;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+/**
+ * 같은 DB를 사용하는 token 저장소 2개로 서버 2대를 흉내내서 테스트
+ */
+class JdbcNearCacheTokenStoreTest {
+
+    private static final String CLIENT_ID = "myApp";
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<JdbcNearCacheTokenStore> tokenStores = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("db/migration/h2/V2__create_oauth2_token_store.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        tokenStores.forEach(JdbcNearCacheTokenStore::destroy);
+        database.shutdown();
+    }
+
+    private JdbcNearCacheTokenStore tokenStore(Duration nearCacheTtl) {
+        return tokenStore(jdbcTemplate, nearCacheTtl);
+    }
+
+    private JdbcNearCacheTokenStore tokenStore(JdbcTemplate jdbcTemplate, Duration nearCacheTtl) {
+        return tokenStore(jdbcTemplate, nearCacheTtl, jdbc -> {
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private JdbcNearCacheTokenStore tokenStore(JdbcTemplate jdbcTemplate, Duration nearCacheTtl, Consumer<TokenStoreProperties.Jdbc> customizer) {
+        TokenStoreProperties properties = new TokenStoreProperties();
+        properties.getJdbc().setNearCacheTtl(nearCacheTtl);
+        properties.getJdbc().setNegativeCacheTtl(nearCacheTtl);
+        // flush()를 호출할 때만 DB에 저장
+        properties.getJdbc().setWriteFlushInterval(Duration.ofHours(1));
+        properties.getJdbc().setCleanupInterval(Duration.ofHours(1));
+        properties.getJdbc().setCleanupBatchSize(2);
+        customizer.accept(properties.getJdbc());
+        JdbcNearCacheTokenStore tokenStore = new JdbcNearCacheTokenStore(jdbcTemplate, properties, mock(ObjectProvider.class));
+        tokenStores.add(tokenStore);
+        return tokenStore;
+    }
+
+    private OAuth2Authentication authentication(String username) {
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), CLIENT_ID,
+                AuthorityUtils.NO_AUTHORITIES, true, Set.of("read", "write"), null, null, null, null);
+        return new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    /**
+     * user_name이 username인 token 저장만 실패하는 JdbcTemplate (저장할 수 없는 token)
+     */
+    private JdbcTemplate failingFor(String username) {
+        JdbcTemplate failingJdbcTemplate = spy(jdbcTemplate);
+        doAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            if (args.stream().anyMatch(values -> values.length > 5 && username.equals(values[5]))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return invocation.callRealMethod();
+        }).when(failingJdbcTemplate).batchUpdate(anyString(), anyList());
+        return failingJdbcTemplate;
+    }
+
+    private DefaultOAuth2AccessToken accessToken(String value, String refreshToken, long expiresInMillis) {
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(value);
+        token.setExpiration(new Date(System.currentTimeMillis() + expiresInMillis));
+        if (refreshToken != null) {
+            token.setRefreshToken(new DefaultExpiringOAuth2RefreshToken(refreshToken, new Date(System.currentTimeMillis() + expiresInMillis)));
+        }
+        return token;
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    @Test
+    @DisplayName("한 서버에서 저장한 token을 다른 서버에서 조회하는 테스트")
+    public void storeAccessToken_otherNode() {
+        // Given
+        JdbcNearCacheTokenStore nodeA = tokenStore(Duration.ofMinutes(1));
+        JdbcNearCacheTokenStore nodeB = tokenStore(Duration.ofMinutes(1));
+        OAuth2Authentication authentication = authentication("user@email.com");
+        DefaultOAuth2AccessToken token = accessToken("access", "refresh", 60_000);
+
+        // When
+        nodeA.storeAccessToken(token, authentication);
+        nodeA.storeRefreshToken(token.getRefreshToken(), authentication);
+        nodeA.flush();
+
+        // Then
+        assertThat(nodeB.readAccessToken("access")).isEqualTo(token);
+        assertThat(nodeB.readAuthentication("access")).isEqualTo(authentication);
+        assertThat(nodeB.readRefreshToken("refresh")).isEqualTo(token.getRefreshToken());
+        assertThat(nodeB.getAccessToken(authentication("user@email.com"))).isEqualTo(token);
+        assertThat(nodeB.findTokensByClientIdAndUserName(CLIENT_ID, "user@email.com")).containsExactly(token);
+        assertThat(nodeB.findTokensByClientId(CLIENT_ID)).containsExactly(token);
+        // token 값은 저장하지 않음
+        assertThat(jdbcTemplate.queryForObject("SELECT token_hash FROM oauth2_access_token", String.class))
+                .hasSize(64)
+                .isNotEqualTo("access");
+    }
+
+    @Test
+    @DisplayName("저장 직후에는 저장한 서버에서만 조회되고 flush 후 DB에 반영되는 테스트")
+    public void storeAccessToken_writeBehind() {
+        // Given
+        JdbcNearCacheTokenStore nodeA = tokenStore(Duration.ofMinutes(1));
+        OAuth2Authentication authentication = authentication("user@email.com");
+
+        // When
+        nodeA.storeAccessToken(accessToken("access", null, 60_000), authentication);
+
+        // Then
+        assertThat(nodeA.readAuthentication("access")).isEqualTo(authentication);
+        assertThat(count("oauth2_access_token")).isZero();
+        nodeA.flush();
+        assertThat(count("oauth2_access_token")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("같은 token을 여러번 저장하면 마지막 값 한건만 DB에 저장되는 테스트")
+    public void storeAccessToken_batch() {
+        // Given
+        JdbcNearCacheTokenStore nodeA = tokenStore(Duration.ofMinutes(1));
+        JdbcNearCacheTokenStore nodeB = tokenStore(Duration.ofMinutes(1));
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            nodeA.storeAccessToken(accessToken("access" + i, null, 60_000), authentication("user" + i));
+        }
+        nodeA.storeAccessToken(accessToken("access0", null, 60_000), authentication("admin"));
+        nodeA.flush();
+
+        // Then
+        assertThat(count("oauth2_access_token")).isEqualTo(10);
+        assertThat(nodeB.readAuthentication("access0").getName()).isEqualTo("admin");
+    }
+
+    @Test
+    @DisplayName("조회한 token은 다른 서버에서 삭제해도 near cache 보관 시간 동안 사용되는 테스트")
+    public void removeAccessToken_nearCacheTtl() throws Exception {
+        // Given
+        JdbcNearCacheTokenStore nodeA = tokenStore(Duration.ofMillis(200));
+        JdbcNearCacheTokenStore nodeB = tokenStore(Duration.ofMillis(200));
+        DefaultOAuth2AccessToken token = accessToken("access", null, 60_000);
+        nodeA.storeAccessToken(token, authentication("user@email.com"));
+        nodeA.flush();
+        assertThat(nodeB.readAccessToken("access")).isEqualTo(token);
+
+        // When
+        nodeA.removeAccessToken(token);
+        nodeA.flush();
+
+        // Then
+        assertThat(nodeA.readAccessToken("access")).isNull();
+        assertThat(nodeB.readAccessToken("access")).isEqualTo(token);
+        Thread.sleep(300);
+        assertThat(nodeB.readAccessToken("access")).isNull();
+    }
+
+    @Test
+    @DisplayName("없는 token 조회 결과를 보관해서 다시 조회하지 않는 테스트")
+    public void readAccessToken_negativeCache() throws Exception {
+        // Given
+        JdbcNearCacheTokenStore nodeA = tokenStore(Duration.ofMillis(200));
+        JdbcNearCacheTokenStore nodeB = tokenStore(Duration.ofMillis(200));
+        assertThat(nodeB.readAccessToken("access")).isNull();
+
+        // When
+        nodeA.storeAccessToken(accessToken("access", null, 60_000), authentication("user@email.com"));
+        nodeA.flush();
+
+        // Then
+        assertThat(nodeB.readAccessToken("access")).isNull();
+        Thread.sleep(300);
+        assertThat(nodeB.readAccessToken("access")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("refresh token으로 access token을 삭제하는 테스트")
+    public void removeAccessTokenUsingRefreshToken() {
+        // Given
+        JdbcNearCacheTokenStore nodeA = tokenStore(Duration.ofMinutes(1));
+        OAuth2Authentication authentication = authentication("user@email.com");
+        DefaultOAuth2AccessToken token = accessToken("access", "refresh", 60_000);
+        OAuth2RefreshToken refreshToken = token.getRefreshToken();
+        nodeA.storeAccessToken(token, authentication);
+        nodeA.storeRefreshToken(refreshToken, authentication);
+        nodeA.flush();
+
+        // When
+        nodeA.removeAccessTokenUsingRefreshToken(refreshToken);
+        nodeA.flush();
+
+        // Then
+        assertThat(nodeA.readAccessToken("access")).isNull();
+        assertThat(count("oauth2_access_token")).isZero();
+        assertThat(nodeA.readAuthenticationForRefreshToken(refreshToken)).isEqualTo(authentication);
+
+        nodeA.removeRefreshToken(refreshToken);
+        nodeA.flush();
+        assertThat(nodeA.readRefreshToken("refresh")).isNull();
+        assertThat(count("oauth2_refresh_token")).isZero();
+    }
+
+    @Test
+    @DisplayName("만료된 token을 나누어 삭제하는 테스트")
+    public void deleteExpired() {
+        // Given
+        JdbcNearCacheTokenStore nodeA = tokenStore(Duration.ofMinutes(1));
+        for (int i = 0; i < 5; i++) {
+            DefaultOAuth2AccessToken token = accessToken("expired" + i, "expired-refresh" + i, -1_000);
+            nodeA.storeAccessToken(token, authentication("user" + i));
+            nodeA.storeRefreshToken(token.getRefreshToken(), authentication("user" + i));
+        }
+        nodeA.storeAccessToken(accessToken("access", null, 60_000), authentication("user@email.com"));
+        nodeA.flush();
+
+        // When
+        int deleted = nodeA.deleteExpired();
+
+        // Then
+        assertThat(deleted).isEqualTo(10);
+        assertThat(count("oauth2_access_token")).isEqualTo(1);
+        assertThat(count("oauth2_refresh_token")).isZero();
+    }
+
+    @Test
+    @DisplayName("DB 저장이 실패하면 버리지 않고 다시 저장하는 테스트")
+    public void storeAccessToken_retryFailedWrite() {
+        // Given
+        JdbcTemplate failingJdbcTemplate = spy(jdbcTemplate);
+        JdbcNearCacheTokenStore nodeA = tokenStore(failingJdbcTemplate, Duration.ofMinutes(1));
+        JdbcNearCacheTokenStore nodeB = tokenStore(Duration.ofMinutes(1));
+        OAuth2Authentication authentication = authentication("user@email.com");
+        DefaultOAuth2AccessToken token = accessToken("access", "refresh", 60_000);
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .doCallRealMethod()
+                .when(failingJdbcTemplate).batchUpdate(anyString(), anyList());
+
+        // When
+        nodeA.storeAccessToken(token, authentication);
+        nodeA.storeRefreshToken(token.getRefreshToken(), authentication);
+        assertThatThrownBy(nodeA::flush).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(count("oauth2_access_token")).isZero();
+        nodeA.flush();
+
+        // Then
+        assertThat(count("oauth2_access_token")).isEqualTo(1);
+        assertThat(count("oauth2_refresh_token")).isEqualTo(1);
+        assertThat(nodeB.readAccessToken("access")).isEqualTo(token);
+    }
+
+    @Test
+    @DisplayName("token 삭제는 DB에 반영될 때까지 기다리고, 실패하면 예외 후 다시 삭제하는 테스트")
+    public void removeAccessToken_failedWriteIsNotLost() {
+        // Given
+        JdbcTemplate failingJdbcTemplate = spy(jdbcTemplate);
+        JdbcNearCacheTokenStore nodeA = tokenStore(failingJdbcTemplate, Duration.ofMinutes(1));
+        DefaultOAuth2AccessToken token = accessToken("access", "refresh", 60_000);
+        OAuth2RefreshToken refreshToken = token.getRefreshToken();
+        nodeA.storeAccessToken(token, authentication("user@email.com"));
+        nodeA.storeRefreshToken(refreshToken, authentication("user@email.com"));
+        nodeA.flush();
+
+        // When
+        nodeA.removeAccessToken(token);
+        assertThat(count("oauth2_access_token")).isZero();
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(failingJdbcTemplate).batchUpdate(anyString(), anyList());
+        assertThatThrownBy(() -> nodeA.removeRefreshToken(refreshToken))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(count("oauth2_refresh_token")).isEqualTo(1);
+        doCallRealMethod().when(failingJdbcTemplate).batchUpdate(anyString(), anyList());
+        nodeA.flush();
+
+        // Then
+        assertThat(count("oauth2_refresh_token")).isZero();
+        assertThat(tokenStore(Duration.ofMinutes(1)).readRefreshToken("refresh")).isNull();
+    }
+
+    @Test
+    @DisplayName("저장할 수 없는 token은 최대 횟수만큼 재시도 후 버리고, 같은 batch의 다른 token은 저장하는 테스트")
+    public void storeAccessToken_dropPoisonWrite() {
+        // Given
+        JdbcNearCacheTokenStore nodeA = tokenStore(failingFor("poison"), Duration.ofMinutes(1), jdbc -> jdbc.setWriteMaxAttempts(2));
+        JdbcNearCacheTokenStore nodeB = tokenStore(Duration.ofMinutes(1));
+
+        // When
+        nodeA.storeAccessToken(accessToken("poison", null, 60_000), authentication("poison"));
+        nodeA.storeAccessToken(accessToken("access1", null, 60_000), authentication("user1"));
+        assertThatThrownBy(nodeA::flush).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(count("oauth2_access_token")).isEqualTo(1);
+        nodeA.storeAccessToken(accessToken("access2", null, 60_000), authentication("user2"));
+        assertThatThrownBy(nodeA::flush).isInstanceOf(DataIntegrityViolationException.class);
+        nodeA.storeAccessToken(accessToken("access3", null, 60_000), authentication("user3"));
+        nodeA.flush();
+
+        // Then
+        assertThat(count("oauth2_access_token")).isEqualTo(3);
+        assertThat(nodeB.readAccessToken("access1")).isNotNull();
+        assertThat(nodeB.readAccessToken("access2")).isNotNull();
+        assertThat(nodeB.readAccessToken("access3")).isNotNull();
+        assertThat(nodeB.readAccessToken("poison")).isNull();
+    }
+
+    @Test
+    @DisplayName("token 삭제는 대기 중인 다른 작업의 실패와 관계없이 삭제하고, 대기 중인 같은 token 저장은 버리는 테스트")
+    public void removeAccessToken_isolatedFromPendingWrites() {
+        // Given
+        JdbcNearCacheTokenStore nodeA = tokenStore(failingFor("poison"), Duration.ofMinutes(1));
+        DefaultOAuth2AccessToken token = accessToken("access", null, 60_000);
+        DefaultOAuth2AccessToken pendingToken = accessToken("pending", null, 60_000);
+        nodeA.storeAccessToken(token, authentication("user@email.com"));
+        nodeA.flush();
+        nodeA.storeAccessToken(accessToken("poison", null, 60_000), authentication("poison"));
+        nodeA.storeAccessToken(pendingToken, authentication("admin@email.com"));
+
+        // When
+        nodeA.removeAccessToken(token);
+        nodeA.removeAccessToken(pendingToken);
+
+        // Then
+        assertThat(count("oauth2_access_token")).isZero();
+        assertThatThrownBy(nodeA::flush).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(count("oauth2_access_token")).isZero();
+        assertThat(tokenStore(Duration.ofMinutes(1)).readAccessToken("pending")).isNull();
+    }
+
+    @Test
+    @DisplayName("없는 token 조회 결과는 저장 주기보다 오래 보관하지 않는 테스트")
+    public void readAccessToken_negativeCacheWithinFlushInterval() throws Exception {
+        // Given
+        JdbcNearCacheTokenStore nodeA = tokenStore(Duration.ofMinutes(1));
+        JdbcNearCacheTokenStore nodeB = tokenStore(jdbcTemplate, Duration.ofMinutes(1), jdbc -> {
+            jdbc.setNegativeCacheTtl(Duration.ofMinutes(1));
+            jdbc.setWriteFlushInterval(Duration.ofMillis(100));
+        });
+        assertThat(nodeB.readAccessToken("access")).isNull();
+
+        // When
+        nodeA.storeAccessToken(accessToken("access", null, 60_000), authentication("user@email.com"));
+        nodeA.flush();
+        Thread.sleep(200);
+
+        // Then
+        assertThat(nodeB.readAccessToken("access")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("인증정보는 비밀번호 hash를 지운 후 저장하는 테스트")
+    public void storeAccessToken_eraseCredentials() {
+        // Given
+        JdbcNearCacheTokenStore nodeA = tokenStore(Duration.ofMinutes(1));
+        Account account = Account.builder()
+                .id(1)
+                .email("user@email.com")
+                .password("{bcrypt}hash")
+                .roles(Set.of(AccountRole.USER))
+                .build();
+        AccountAdapter principal = new AccountAdapter(account);
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), CLIENT_ID,
+                AuthorityUtils.NO_AUTHORITIES, true, Set.of("read", "write"), null, null, null, null);
+        OAuth2Authentication authentication = new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken(principal, "pass", principal.getAuthorities()));
+
+        // When
+        nodeA.storeAccessToken(accessToken("access", null, 60_000), authentication);
+        nodeA.flush();
+
+        // Then
+        OAuth2Authentication stored = SerializationUtils.deserialize(
+                jdbcTemplate.queryForObject("SELECT authentication FROM oauth2_access_token", byte[].class));
+        AccountAdapter storedPrincipal = (AccountAdapter) stored.getPrincipal();
+        assertThat(storedPrincipal.getPassword()).isNull();
+        assertThat(storedPrincipal.getAccount().getPassword()).isNull();
+        assertThat(storedPrincipal.getAccount().getEmail()).isEqualTo("user@email.com");
+        assertThat(stored.getUserAuthentication().getCredentials()).isNull();
+        // 캐시한 계정은 다음 로그인에서 사용하므로 그대로 유지
+        assertThat(account.getPassword()).isEqualTo("{bcrypt}hash");
+    }
+}
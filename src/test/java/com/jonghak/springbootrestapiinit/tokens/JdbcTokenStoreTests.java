@@ -0,0 +1,114 @@
+package com.jonghak.springbootrestapiinit.tokens;
+
+import com.jonghak.springbootrestapiinit.common.BaseTest;
+import com.jonghak.springbootrestapiinit.configs.AppPropertices;
+import com.jonghak.springbootrestapiinit.configs.TokenStoreProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.json.JacksonJsonParser;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * my-app.token-store.type=jdbc 설정 시 token 발급, 검증 테스트
+ * 다른 테스트와 context를 공유하지 않으므로 별도의 DB를 사용
+ */
+@TestPropertySource(properties = {
+        "my-app.token-store.type=jdbc",
+        "spring.datasource.url=jdbc:h2:mem:jdbc-token",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:jdbc-token"
+})
+public class JdbcTokenStoreTests extends BaseTest {
+
+    @Autowired
+    AppPropertices appPropertices;
+
+    @Autowired
+    TokenStore tokenStore;
+
+    @Autowired
+    TokenStoreProperties tokenStoreProperties;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final JacksonJsonParser parser = new JacksonJsonParser();
+
+    private Map<String, Object> issueToken() throws Exception {
+        String response = this.mockMvc.perform(post("/oauth/token")
+                        .with(httpBasic(appPropertices.getClientId(), appPropertices.getClientSecret()))
+                        .param("username", appPropertices.getUserUsername())
+                        .param("password", appPropertices.getUserPassword())
+                        .param("grant_type", "password"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return parser.parseMap(response);
+    }
+
+    @Test
+    @DisplayName("발급한 token을 같은 DB를 사용하는 다른 서버에서 인증하는 테스트")
+    @SuppressWarnings("unchecked")
+    public void issueToken_otherNode() throws Exception {
+        // Given
+        String accessToken = issueToken().get("access_token").toString();
+        this.mockMvc.perform(get("/api/events")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isOk());
+
+        // When
+        ((JdbcNearCacheTokenStore) tokenStore).flush();
+        JdbcNearCacheTokenStore otherNode = new JdbcNearCacheTokenStore(jdbcTemplate, tokenStoreProperties, mock(ObjectProvider.class));
+
+        // Then
+        try {
+            OAuth2Authentication authentication = otherNode.readAuthentication(accessToken);
+            assertThat(authentication).isNotNull();
+            assertThat(authentication.getName()).isEqualTo(appPropertices.getUserUsername());
+            assertThat(otherNode.readAccessToken(accessToken).getValue()).isEqualTo(accessToken);
+        } finally {
+            otherNode.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("refresh token으로 새 token을 발급하면 이전 token은 사용할 수 없는 테스트")
+    public void refreshToken() throws Exception {
+        // Given
+        Map<String, Object> token = issueToken();
+        String accessToken = token.get("access_token").toString();
+
+        // When
+        String response = this.mockMvc.perform(post("/oauth/token")
+                        .with(httpBasic(appPropertices.getClientId(), appPropertices.getClientSecret()))
+                        .param("refresh_token", token.get("refresh_token").toString())
+                        .param("grant_type", "refresh_token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("access_token").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        String newAccessToken = parser.parseMap(response).get("access_token").toString();
+        assertThat(newAccessToken).isNotEqualTo(accessToken);
+        this.mockMvc.perform(get("/api/events")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isUnauthorized());
+        this.mockMvc.perform(get("/api/events")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + newAccessToken))
+                .andExpect(status().isOk());
+    }
+}
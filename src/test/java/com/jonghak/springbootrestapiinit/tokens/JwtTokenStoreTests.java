@@ -0,0 +1,167 @@
+package com.jonghak.springbootrestapiinit.tokens;
+
+import com.jonghak.springbootrestapiinit.accounts.Account;
+import com.jonghak.springbootrestapiinit.accounts.AccountRepository;
+import com.jonghak.springbootrestapiinit.common.BaseTest;
+import com.jonghak.springbootrestapiinit.configs.AppPropertices;
+import com.jonghak.springbootrestapiinit.events.Event;
+import com.jonghak.springbootrestapiinit.events.EventDto;
+import com.jonghak.springbootrestapiinit.events.EventRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.json.JacksonJsonParser;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * my-app.token-store.type=jwt 설정 시 token 발급, 검증 테스트
+ * 다른 테스트와 context를 공유하지 않으므로 별도의 DB를 사용
+ */
+@TestPropertySource(properties = {
+        "my-app.token-store.type=jwt",
+        "my-app.token-store.signing-key=test-signing-key",
+        "spring.datasource.url=jdbc:h2:mem:jwt",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:jwt"
+})
+public class JwtTokenStoreTests extends BaseTest {
+
+    @Autowired
+    AppPropertices appPropertices;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    TokenStore tokenStore;
+
+    private final JacksonJsonParser parser = new JacksonJsonParser();
+
+    private Map<String, Object> issueToken() throws Exception {
+        String response = this.mockMvc.perform(post("/oauth/token")
+                        .with(httpBasic(appPropertices.getClientId(), appPropertices.getClientSecret()))
+                        .param("username", appPropertices.getUserUsername())
+                        .param("password", appPropertices.getUserPassword())
+                        .param("grant_type", "password"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return parser.parseMap(response);
+    }
+
+    @Test
+    @DisplayName("JWT access token에 계정 id, email, 권한이 포함되는 테스트")
+    public void issueToken_claims() throws Exception {
+        // Given
+        Account account = accountRepository.findByEmail(appPropertices.getUserUsername()).orElseThrow();
+
+        // When
+        String accessToken = issueToken().get("access_token").toString();
+
+        // Then
+        assertThat(tokenStore).isInstanceOf(RevocableJwtTokenStore.class);
+        Map<String, Object> claims = parser.parseMap(JwtHelper.decode(accessToken).getClaims());
+        assertThat(claims.get(AccountUserAuthenticationConverter.ACCOUNT_ID)).isEqualTo(account.getId());
+        assertThat(claims.get("user_name")).isEqualTo(account.getEmail());
+        assertThat(claims.get("authorities")).isEqualTo(List.of("ROLE_USER"));
+    }
+
+    @Test
+    @DisplayName("JWT access token만으로 계정을 조회하지 않고 이벤트를 생성하는 테스트")
+    public void createEvent_withoutAccountLookup() throws Exception {
+        // Given
+        Account account = accountRepository.findByEmail(appPropertices.getUserUsername()).orElseThrow();
+        String accessToken = issueToken().get("access_token").toString();
+        EventDto eventDto = EventDto.builder()
+                .name("jwt event")
+                .description("test event")
+                .beginEnrollmentDateTime(LocalDateTime.of(2022, 8, 28, 0, 0, 0))
+                .closeEnrollmentDateTime(LocalDateTime.of(2022, 8, 29, 0, 0, 0))
+                .beginEventDateTime(LocalDateTime.of(2022, 8, 30, 0, 0, 0))
+                .endEventDateTime(LocalDateTime.of(2022, 8, 31, 0, 0, 0))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("군포시")
+                .build();
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        String response = this.mockMvc.perform(post("/api/events")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(eventDto)))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("_links.update-event").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertThat(statistics.getEntityStatistics(Account.class.getName()).getLoadCount()).isZero();
+        Integer id = (Integer) parser.parseMap(response).get("id");
+        Event event = eventRepository.findById(id).orElseThrow();
+        assertThat(event.getManager().getId()).isEqualTo(account.getId());
+    }
+
+    @Test
+    @DisplayName("서명이 맞지 않는 JWT는 인증되지 않는 테스트")
+    public void tamperedToken() throws Exception {
+        String accessToken = issueToken().get("access_token").toString();
+        String tampered = accessToken.substring(0, accessToken.length() - 2) + "xx";
+
+        this.mockMvc.perform(get("/api/events")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("사용한 refresh token은 폐기되어 다시 사용할 수 없는 테스트")
+    public void refreshToken_revoked() throws Exception {
+        // Given
+        String refreshToken = issueToken().get("refresh_token").toString();
+
+        // When
+        this.mockMvc.perform(post("/oauth/token")
+                        .with(httpBasic(appPropertices.getClientId(), appPropertices.getClientSecret()))
+                        .param("refresh_token", refreshToken)
+                        .param("grant_type", "refresh_token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("access_token").exists())
+                .andExpect(jsonPath("refresh_token").exists());
+
+        // Then
+        assertThat(((RevocableJwtTokenStore) tokenStore).isRevoked(refreshToken)).isTrue();
+        this.mockMvc.perform(post("/oauth/token")
+                        .with(httpBasic(appPropertices.getClientId(), appPropertices.getClientSecret()))
+                        .param("refresh_token", refreshToken)
+                        .param("grant_type", "refresh_token"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("error").value("invalid_grant"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.jonghak.springbootrestapiinit.tokens;
+
+import com.jonghak.springbootrestapiinit.configs.TokenStoreProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.jwt.crypto.sign.MacSigner;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class RevocableJwtTokenStoreTest {
+
+    private static final String SIGNING_KEY = "test-signing-key";
+
+    @SuppressWarnings("unchecked")
+    private RevocableJwtTokenStore tokenStore(long maximumSize) {
+        TokenStoreProperties properties = new TokenStoreProperties();
+        properties.setMaximumSize(maximumSize);
+        JwtAccessTokenConverter accessTokenConverter = new JwtAccessTokenConverter();
+        accessTokenConverter.setSigningKey(SIGNING_KEY);
+        return new RevocableJwtTokenStore(accessTokenConverter, properties, mock(ObjectProvider.class));
+    }
+
+    private String refreshToken(String jti, long expiresInMillis) {
+        long exp = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() + expiresInMillis);
+        return JwtHelper.encode("{\"jti\":\"" + jti + "\",\"exp\":" + exp + "}", new MacSigner(SIGNING_KEY)).getEncoded();
+    }
+
+    @Test
+    @DisplayName("폐기 목록이 가득 차면 보관 중인 token을 삭제하지 않고 폐기(refresh)를 실패시키는 테스트")
+    public void revokeRefreshToken_full() {
+        // Given
+        RevocableJwtTokenStore tokenStore = tokenStore(2);
+        String first = refreshToken("first", 60_000);
+        String second = refreshToken("second", 60_000);
+        String third = refreshToken("third", 60_000);
+        tokenStore.revokeRefreshToken(first);
+        tokenStore.revokeRefreshToken(second);
+
+        // When & Then
+        assertThatThrownBy(() -> tokenStore.revokeRefreshToken(third)).isInstanceOf(IllegalStateException.class);
+        assertThat(tokenStore.isRevoked(first)).isTrue();
+        assertThat(tokenStore.isRevoked(second)).isTrue();
+        assertThat(tokenStore.revokedRefreshTokenCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("만료된 refresh token은 폐기 목록에 보관하지 않는 테스트")
+    public void revokeRefreshToken_expired() {
+        // Given
+        RevocableJwtTokenStore tokenStore = tokenStore(1);
+        String expired = refreshToken("expired", -60_000);
+        String valid = refreshToken("valid", 60_000);
+
+        // When
+        tokenStore.revokeRefreshToken(expired);
+        tokenStore.revokeRefreshToken(valid);
+
+        // Then
+        assertThat(tokenStore.isRevoked(expired)).isFalse();
+        assertThat(tokenStore.isRevoked(valid)).isTrue();
+    }
+}